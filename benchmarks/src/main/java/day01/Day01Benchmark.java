@@ -0,0 +1,111 @@
+package day01;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day01Benchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    @Param({"1048576"})
+    long memoryBudget;
+
+    Path path;
+    Main.Input input;
+    RunningScores scores;
+    int[] runningRight;
+    int[] resortedRight;
+    int edits;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day01").resolve(file);
+        input = Main.parseInput(path);
+        scores = RunningScores.of(input);
+        runningRight = input.rightList().clone();
+        resortedRight = input.rightList().clone();
+    }
+
+    @Benchmark
+    public Main.Input parse() throws Exception {
+        return Main.parseInput(path);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Main.part1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Main.part2(input);
+    }
+
+    @Benchmark
+    public long part1Running() {
+        return Main.part1(input, Main.Engine.RUNNING);
+    }
+
+    @Benchmark
+    public long part2Running() {
+        return Main.part2(input, Main.Engine.RUNNING);
+    }
+
+    /**
+     * Replaces the right value of one pair and reads both scores, keeping
+     * them current with a remove and an insert.
+     */
+    @Benchmark
+    public long editRunning() {
+        final var pair = edits;
+        final var left = input.leftList()[pair];
+        scores.remove(left, runningRight[pair]);
+        runningRight[pair] = nextRightValue();
+        scores.insert(left, runningRight[pair]);
+        return scores.distance() + scores.similarity();
+    }
+
+    /**
+     * The same edit as {@link #editRunning}, rescored by sorting both lists
+     * again.
+     */
+    @Benchmark
+    public long editResorted() {
+        final var pair = edits;
+        resortedRight[pair] = nextRightValue();
+        final var edited = new Main.Input(input.leftList(), resortedRight);
+        return Main.part1(edited) + Main.part2(edited);
+    }
+
+    private int nextRightValue() {
+        final var pairs = input.leftList().length;
+        final var value = input.leftList()[(int) ((long) edits * 7919 % pairs)];
+        edits = (edits + 1) % pairs;
+        return value;
+    }
+
+    @Benchmark
+    public long part1External() throws Exception {
+        return Main.part1(path, memoryBudget);
+    }
+
+    @Benchmark
+    public long part2External() throws Exception {
+        return Main.part2(path, memoryBudget);
+    }
+}
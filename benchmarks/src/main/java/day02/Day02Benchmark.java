@@ -0,0 +1,71 @@
+package day02;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day02Benchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    @Param({"65536"})
+    int chunkBytes;
+
+    Path path;
+    Main.Reports input;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day02").resolve(file);
+        input = Main.parseInput(path);
+    }
+
+    @Benchmark
+    public Main.Reports parse() throws Exception {
+        return Main.parseInput(path);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Main.part1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Main.part2(input);
+    }
+
+    @Benchmark
+    public long part1Vector() {
+        return Main.part1(input, Main.Engine.VECTOR);
+    }
+
+    @Benchmark
+    public long part2Vector() {
+        return Main.part2(input, Main.Engine.VECTOR);
+    }
+
+    @Benchmark
+    public long part1Chunked() throws Exception {
+        return Main.part1(path, chunkBytes);
+    }
+
+    @Benchmark
+    public long part2Chunked() throws Exception {
+        return Main.part2(path, chunkBytes);
+    }
+}
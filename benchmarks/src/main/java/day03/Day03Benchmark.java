@@ -0,0 +1,67 @@
+package day03;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day03Benchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    @Param({"4096"})
+    int chunkBytes;
+
+    Path path;
+    String input;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day03").resolve(file);
+        input = Main.parseInput(path);
+    }
+
+    @Benchmark
+    public String parse() throws Exception {
+        return Main.parseInput(path);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Main.part1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Main.part2(input);
+    }
+
+    @Benchmark
+    public long scan() throws Exception {
+        final var scanner = Main.scan(path);
+        return scanner.total() + scanner.enabledTotal();
+    }
+
+    @Benchmark
+    public long part1Segmented() throws Exception {
+        return Main.part1(path, chunkBytes);
+    }
+
+    @Benchmark
+    public long part2Segmented() throws Exception {
+        return Main.part2(path, chunkBytes);
+    }
+}
@@ -0,0 +1,63 @@
+package day03;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Compares the whole-input scanners by bytes per second, reported as the
+ * {@code bytes} secondary result.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day03ScanBenchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    Path path;
+    long size;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day03").resolve(file);
+        size = Files.size(path);
+    }
+
+    @Benchmark
+    public long regex(final Throughput throughput) throws Exception {
+        throughput.bytes += size;
+        return Main.part2(Main.parseInput(path));
+    }
+
+    @Benchmark
+    public long scan(final Throughput throughput) throws Exception {
+        throughput.bytes += size;
+        return Main.scan(path).enabledTotal();
+    }
+
+    @Benchmark
+    public long scanVector(final Throughput throughput) throws Exception {
+        throughput.bytes += size;
+        return Main.scanVector(path).enabledTotal();
+    }
+}
@@ -0,0 +1,78 @@
+package day04;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day04Benchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    @Param({"64"})
+    int tileRows;
+
+    Path path;
+    Main.Grid input;
+    WordIndex index;
+    int edits;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day04").resolve(file);
+        input = Main.parseInput(path);
+        index = new WordIndex(Main.XMAS, Main.parseInput(path));
+    }
+
+    @Benchmark
+    public Main.Grid parse() throws Exception {
+        return Main.parseInput(path);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Main.part1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Main.part2(input);
+    }
+
+    @Benchmark
+    public WordSearch.Result search() {
+        return Main.XMAS.search(input);
+    }
+
+    @Benchmark
+    public long part1Tiled() throws Exception {
+        return Main.part1(path, tileRows);
+    }
+
+    @Benchmark
+    public long part2Tiled() throws Exception {
+        return Main.part2(path, tileRows);
+    }
+
+    @Benchmark
+    public long edit() {
+        final var cells = input.width() * input.height();
+        final var cell = (int) ((long) edits * 7919 % cells);
+        edits = (edits + 1) % cells;
+        index.set(cell / input.width(), cell % input.width(), (byte) "XMAS".charAt(edits & 3));
+        return index.count(0) + index.crosses();
+    }
+}
@@ -0,0 +1,57 @@
+package day06;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class Day06Benchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    Path path;
+    Main.State input;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day06").resolve(file);
+        input = Main.parseInput(path);
+    }
+
+    @Benchmark
+    public Main.State parse() throws Exception {
+        return Main.parseInput(path);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Main.part1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Main.part2(input);
+    }
+
+    @Benchmark
+    public long part2Jump() {
+        return Main.part2(input, Main.Engine.JUMP);
+    }
+
+    @Benchmark
+    public long part2Resume() {
+        return Main.part2(input, Main.Engine.RESUME);
+    }
+}
@@ -0,0 +1,79 @@
+package day07;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day07Benchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    Path path;
+    List<Main.Equation> input;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day07").resolve(file);
+        input = Main.parseInput(path);
+    }
+
+    @Benchmark
+    public List<Main.Equation> parse() throws Exception {
+        return Main.parseInput(path);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Main.part1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Main.part2(input);
+    }
+
+    @Benchmark
+    public long part1Backward() {
+        return Main.part1(input, Main.Engine.BACKWARD);
+    }
+
+    @Benchmark
+    public long part2Backward() {
+        return Main.part2(input, Main.Engine.BACKWARD);
+    }
+
+    @Benchmark
+    public long part1Forward() {
+        return Main.part1(input, Main.Engine.FORWARD);
+    }
+
+    @Benchmark
+    public long part2Forward() {
+        return Main.part2(input, Main.Engine.FORWARD);
+    }
+
+    @Benchmark
+    public long part2Exact() {
+        return Main.part2(input, Main.Engine.TREE_EXACT);
+    }
+
+    @Benchmark
+    public long part2Parallel() {
+        return Main.part2(input, Main.Engine.PARALLEL);
+    }
+}
@@ -0,0 +1,78 @@
+package day07;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Compares the concatenation kernels on operands of up to {@code maxDigits}
+ * digits, per concatenation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day07ConcatBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"3", "9"})
+    int maxDigits;
+
+    long[] lefts;
+    long[] rights;
+
+    @Setup
+    public void setup() {
+        final var random = new Random(7);
+        lefts = new long[PAIRS];
+        rights = new long[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            lefts[i] = 1 + random.nextLong(Main.POWERS_OF_TEN[maxDigits] - 1);
+            rights[i] = 1 + random.nextLong(Main.POWERS_OF_TEN[maxDigits] - 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long strings() {
+        var sum = 0L;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += Main.concatAsStrings(lefts[i], rights[i]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long arithmetic() {
+        var sum = 0L;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += Main.concat(lefts[i], rights[i]);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long checked() {
+        var sum = 0L;
+        for (int i = 0; i < PAIRS; i++) {
+            sum += Main.Node.Operator.CONCAT.applyExact(lefts[i], rights[i]);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,62 @@
+package day08;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class Day08Benchmark {
+    @Param({"example.txt", "input.txt"})
+    String file;
+
+    Path path;
+    Main.Input input;
+    AntinodeIndex index;
+    char frequency;
+    Main.Point antenna;
+
+    @Setup
+    public void setup() throws Exception {
+        path = Path.of("./src/day08").resolve(file);
+        input = Main.parseInput(path);
+        index = AntinodeIndex.of(input);
+        final var first = input.antennas().entrySet().iterator().next();
+        frequency = first.getKey();
+        antenna = first.getValue().getFirst();
+    }
+
+    @Benchmark
+    public Main.Input parse() throws Exception {
+        return Main.parseInput(path);
+    }
+
+    @Benchmark
+    public long part1() {
+        return Main.part1(input);
+    }
+
+    @Benchmark
+    public long part2() {
+        return Main.part2(input);
+    }
+
+    @Benchmark
+    public long moveAntenna() {
+        index.remove(frequency, antenna);
+        index.add(frequency, antenna);
+        return index.part1() + index.part2();
+    }
+}
@@ -0,0 +1,208 @@
+package common;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A forward-only cursor over the raw bytes of a puzzle input.
+ * <p>
+ * Inputs are memory-mapped rather than decoded into {@code String}s, and all
+ * the accessors read numbers straight out of the buffer, so walking an input
+ * of any size allocates nothing beyond the cursor itself. Only ASCII inputs
+ * are supported; {@code '\r'} is treated like any other separator.
+ */
+public final class ByteCursor {
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    public ByteCursor(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.position = buffer.position();
+    }
+
+    public static ByteCursor map(final Path input) throws Exception {
+        try (final var channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            return new ByteCursor(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Maps at most {@code maxLength} bytes of {@code channel} from
+     * {@code offset}, trimmed back to the last line break so that no line is
+     * split between windows. The next window starts at
+     * {@code offset + limit()}.
+     */
+    public static ByteCursor mapLines(
+        final FileChannel channel,
+        final long offset,
+        final int maxLength
+    ) throws Exception {
+        final var length = (int) Math.min(maxLength, channel.size() - offset);
+        final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        if (offset + length < channel.size()) {
+            var end = length;
+            while (end > 0 && buffer.get(end - 1) != '\n') {
+                end--;
+            }
+            if (end == 0) {
+                throw new IllegalArgumentException("Line at offset " + offset + " is longer than " + maxLength + " bytes");
+            }
+            buffer.limit(end);
+        }
+
+        return new ByteCursor(buffer);
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public void position(final int position) {
+        this.position = position;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public byte get(final int index) {
+        return buffer.get(index);
+    }
+
+    /**
+     * Moves past the next occurrence of {@code b}, returning false (and
+     * leaving the cursor at the end) if there is none.
+     */
+    public boolean skipUntil(final byte b) {
+        while (position < limit) {
+            if (buffer.get(position++) == b) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The index just past the last content byte of the current line, i.e.
+     * the position of its {@code '\n'} (or {@code "\r\n"}) or the end of the
+     * input. Does not move the cursor.
+     */
+    public int lineEnd() {
+        var end = position;
+        while (end < limit && buffer.get(end) != '\n') {
+            end++;
+        }
+
+        return end > position && buffer.get(end - 1) == '\r' ? end - 1 : end;
+    }
+
+    /**
+     * Moves to the start of the next line, returning whether there is one.
+     */
+    public boolean nextLine() {
+        return skipUntil((byte) '\n') && position < limit;
+    }
+
+    public boolean atLineEnd() {
+        return position >= limit || buffer.get(position) == '\n' || buffer.get(position) == '\r';
+    }
+
+    /**
+     * Skips separators up to the next number, returning false if the end of
+     * the input is reached first.
+     */
+    public boolean hasNextNumber() {
+        while (position < limit && !isNumberStart(position)) {
+            position++;
+        }
+
+        return position < limit;
+    }
+
+    /**
+     * Like {@link #hasNextNumber()} but never crosses a line break, so that
+     * callers can tell where one line's numbers end.
+     */
+    public boolean hasNextNumberOnLine() {
+        while (position < limit && !isNumberStart(position)) {
+            if (buffer.get(position) == '\n') {
+                return false;
+            }
+            position++;
+        }
+
+        return position < limit;
+    }
+
+    public int nextInt() {
+        final var start = position;
+        final var value = nextLong();
+        if (value != (int) value) {
+            throw outOfRange(start, "an int");
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Reads the next number, throwing {@link NumberFormatException} like
+     * {@link Long#parseLong} if it doesn't fit in a {@code long}.
+     */
+    public long nextLong() {
+        if (!hasNextNumber()) {
+            throw new IllegalStateException("No number at or after position " + position);
+        }
+
+        final var start = position;
+        final var negative = buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+
+        // accumulated negatively, since Long.MIN_VALUE has no positive twin
+        var value = 0L;
+        while (position < limit) {
+            final var digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value < Long.MIN_VALUE / 10 || value * 10 < Long.MIN_VALUE + digit) {
+                throw outOfRange(start, "a long");
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+
+        if (!negative && value == Long.MIN_VALUE) {
+            throw outOfRange(start, "a long");
+        }
+        return negative ? value : -value;
+    }
+
+    private NumberFormatException outOfRange(final int start, final String type) {
+        return new NumberFormatException("Number at position " + start + " does not fit in " + type);
+    }
+
+    private boolean isNumberStart(final int index) {
+        final var b = buffer.get(index);
+        if (b >= '0' && b <= '9') {
+            return true;
+        }
+
+        if (b != '-' || index + 1 >= limit) {
+            return false;
+        }
+
+        final var following = buffer.get(index + 1);
+        return following >= '0' && following <= '9';
+    }
+}
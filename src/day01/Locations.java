@@ -0,0 +1,152 @@
+package day01;
+
+import java.util.Arrays;
+
+/**
+ * Primitive kernels behind {@link Main}: sorting the location columns and
+ * scoring them as merges over the sorted arrays, all linear in the number of
+ * pairs once sorted.
+ */
+final class Locations {
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private Locations() {
+    }
+
+    /**
+     * Returns a sorted copy of {@code values}.
+     */
+    static int[] sorted(final int[] values) {
+        final var result = values.clone();
+        sort(result, result.length, new int[result.length]);
+        return result;
+    }
+
+    /**
+     * Sorts the first {@code length} elements of {@code values} in place,
+     * using {@code scratch} (at least {@code length} long) as the only extra
+     * space. Uses a counting sort when the values span a range no wider than
+     * {@code length}, and an LSD radix sort otherwise.
+     */
+    static void sort(final int[] values, final int length, final int[] scratch) {
+        if (length < 2) {
+            return;
+        }
+
+        var min = Integer.MAX_VALUE;
+        var max = Integer.MIN_VALUE;
+        for (int i = 0; i < length; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+
+        final var range = (long) max - min + 1;
+        if (range <= length) {
+            countingSort(values, length, min, (int) range, scratch);
+        } else {
+            radixSort(values, length, scratch);
+        }
+    }
+
+    private static void countingSort(
+        final int[] values,
+        final int length,
+        final int min,
+        final int range,
+        final int[] counts
+    ) {
+        Arrays.fill(counts, 0, range, 0);
+        for (int i = 0; i < length; i++) {
+            counts[values[i] - min]++;
+        }
+
+        var index = 0;
+        for (int i = 0; i < range; i++) {
+            Arrays.fill(values, index, index + counts[i], min + i);
+            index += counts[i];
+        }
+    }
+
+    private static void radixSort(final int[] values, final int length, final int[] scratch) {
+        var source = values;
+        var target = scratch;
+        final var counts = new int[RADIX];
+
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                counts[digit(source[i], shift)]++;
+            }
+
+            // every value shares this digit, so the pass would be a copy
+            if (counts[digit(source[0], shift)] == length) {
+                continue;
+            }
+
+            var offset = 0;
+            for (int i = 0; i < RADIX; i++) {
+                final var count = counts[i];
+                counts[i] = offset;
+                offset += count;
+            }
+
+            for (int i = 0; i < length; i++) {
+                final var value = source[i];
+                target[counts[digit(value, shift)]++] = value;
+            }
+
+            final var swap = source;
+            source = target;
+            target = swap;
+        }
+
+        if (source != values) {
+            System.arraycopy(source, 0, values, 0, length);
+        }
+    }
+
+    private static int digit(final int value, final int shift) {
+        // flipping the sign bit orders negative values before positive ones
+        return ((value ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1);
+    }
+
+    static long distance(final int[] sortedLeft, final int[] sortedRight) {
+        var sum = 0L;
+        for (int i = 0; i < sortedLeft.length; i++) {
+            sum += Math.abs((long) sortedLeft[i] - sortedRight[i]);
+        }
+
+        return sum;
+    }
+
+    /**
+     * Sums each left value multiplied by the number of times it occurs in the
+     * right list, walking both sorted lists once.
+     */
+    static long similarity(final int[] sortedLeft, final int[] sortedRight) {
+        var sum = 0L;
+        var left = 0;
+        var right = 0;
+        while (left < sortedLeft.length && right < sortedRight.length) {
+            final var value = sortedLeft[left];
+            if (value < sortedRight[right]) {
+                left++;
+            } else if (value > sortedRight[right]) {
+                right++;
+            } else {
+                final var leftStart = left;
+                while (left < sortedLeft.length && sortedLeft[left] == value) {
+                    left++;
+                }
+                final var rightStart = right;
+                while (right < sortedRight.length && sortedRight[right] == value) {
+                    right++;
+                }
+                sum += (long) value * (left - leftStart) * (right - rightStart);
+            }
+        }
+
+        return sum;
+    }
+}
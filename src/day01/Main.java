@@ -1,67 +1,95 @@
 package day01;
 
-import java.nio.file.Files;
+import common.ByteCursor;
+
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Arrays;
 
 public class Main {
-    private record Input(List<Integer> leftList, List<Integer> rightList) { }
+    record Input(int[] leftList, int[] rightList) { }
 
     public static void main() throws Exception {
         System.out.println("Part 1: " + part1());
         System.out.println("Part 2: " + part2());
     }
 
-    public static int part1() throws Exception {
-        final var lines = Files.readAllLines(Path.of("./src/day01/input.txt"));
-        final var input = parseInput(lines);
+    public static long part1() throws Exception {
+        return part1(parseInput(Path.of("./src/day01/input.txt")));
+    }
+
+    static long part1(final Input input) {
+        return Locations.distance(
+            Locations.sorted(input.leftList),
+            Locations.sorted(input.rightList)
+        );
+    }
+
+    public static long part2() throws Exception {
+        return part2(parseInput(Path.of("./src/day01/input.txt")));
+    }
+
+    static long part2(final Input input) {
+        return Locations.similarity(
+            Locations.sorted(input.leftList),
+            Locations.sorted(input.rightList)
+        );
+    }
 
-        final var leftList = input.leftList.stream().sorted().toList();
-        final var rightList = input.rightList.stream().sorted().toList();
+    enum Engine {
+        /** Sorts both lists and merges them. */
+        SORTED,
+        /** Builds a {@link RunningScores} from the pairs. */
+        RUNNING
+    }
 
-        return IntStream.range(0, leftList.size())
-            .map(i -> Math.abs(leftList.get(i) - rightList.get(i)))
-            .sum();
+    static long part1(final Input input, final Engine engine) {
+        return switch (engine) {
+            case SORTED -> part1(input);
+            case RUNNING -> RunningScores.of(input).distance();
+        };
     }
 
-    public static int part2() throws Exception {
-        final var lines = Files.readAllLines(Path.of("./src/day01/input.txt"));
-        final var input = parseInput(lines);
+    static long part2(final Input input, final Engine engine) {
+        return switch (engine) {
+            case SORTED -> part2(input);
+            case RUNNING -> RunningScores.of(input).similarity();
+        };
+    }
 
-        final var rightListFrequency = input.rightList.stream()
-            .collect(
-                Collectors.groupingBy(
-                    Function.identity(),
-                    Collectors.summingInt(x -> x)
-                )
-            );
+    /**
+     * Scores {@code input} out of core, holding only about
+     * {@code memoryBudget} bytes of it on the heap at once.
+     */
+    static long part1(final Path input, final long memoryBudget) throws Exception {
+        try (final var runs = SortedRuns.spill(input, memoryBudget)) {
+            return runs.distance();
+        }
+    }
 
-        return input.leftList.stream()
-            .reduce(
-                0,
-                (x, y) -> x + rightListFrequency.getOrDefault(y, 0)
-            );
+    static long part2(final Path input, final long memoryBudget) throws Exception {
+        try (final var runs = SortedRuns.spill(input, memoryBudget)) {
+            return runs.similarity();
+        }
     }
 
-    private static Input parseInput(final List<String> lines) {
-        return lines.stream().map(line -> {
-                final var parts = line.split("\\s+");
-                return new int[]{
-                    Integer.parseInt(parts[0]),
-                    Integer.parseInt(parts[1])
-                };
-            })
-            .collect(
-                () -> new Input(new ArrayList<>(), new ArrayList<>()),
-                (acc, pair) -> {
-                    acc.leftList.add(pair[0]);
-                    acc.rightList.add(pair[1]);
-                },
-                (_, _) -> { } // no-op combiner
-            );
+    static Input parseInput(final Path input) throws Exception {
+        final var cursor = ByteCursor.map(input);
+        var leftList = new int[1024];
+        var rightList = new int[1024];
+        var size = 0;
+        while (cursor.hasNextNumber()) {
+            if (size == leftList.length) {
+                leftList = Arrays.copyOf(leftList, size * 2);
+                rightList = Arrays.copyOf(rightList, size * 2);
+            }
+            leftList[size] = cursor.nextInt();
+            rightList[size] = cursor.nextInt();
+            size++;
+        }
+
+        return new Input(
+            Arrays.copyOf(leftList, size),
+            Arrays.copyOf(rightList, size)
+        );
     }
 }
@@ -0,0 +1,639 @@
+package day01;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Keeps both day01 scores current while location pairs are inserted and
+ * removed, without re-sorting anything.
+ * <p>
+ * The similarity score is {@code sum(v * leftCount(v) * rightCount(v))}, so
+ * each update only touches the counts of its own two values.
+ * <p>
+ * The distance can't be kept as a sum over rank-aligned pairs, because one
+ * insert re-pairs every rank between the two new values. Instead it uses
+ * the equivalent form {@code sum over x of |D(x)|}, where
+ * {@code D(x) = #left <= x - #right <= x}. {@code D} is stored as one cell
+ * per distinct value present, running up to the next such value, in an
+ * ordered list of blocks. Inserting the pair {@code (l, r)} adds +1 to the
+ * cells in {@code [l, r)}, or -1 to those in {@code [r, l)}. When the last
+ * occurrence of a value is removed, D no longer steps there, so its cell is
+ * merged back into the one before it. Memory therefore follows the distinct
+ * values currently present, not every value ever seen.
+ * <p>
+ * Each block keeps its cells' levels sorted, with prefix sums of width and
+ * width * level, and a lazy offset. A block wholly inside the range just
+ * moves its offset. It also moves a pointer to the first non-negative level,
+ * which shifts by at most one entry per unit step, so its sum of |D| is
+ * recomputed in O(1). Only the blocks at either end of the range are
+ * rebuilt, in O(B) each. An update therefore costs O(m / B + B) for m
+ * distinct values and blocks of about B cells.
+ * <p>
+ * B is kept near sqrt(m), making that O(sqrt(m)). Blocks are split when
+ * they fill and merged with a neighbour when they run low, and all of them
+ * are re-cut to a new B whenever m leaves {@code [B^2 / 4, 4 * B^2]}. That
+ * takes O(m log B) but only happens after Theta(m) updates, so it adds
+ * O(log m) amortized. O(log m) per update is out of reach here: the sum of
+ * |D| over a range doesn't survive a lazy +1 once D crosses zero inside it.
+ * <p>
+ * {@link #of} sorts the pairs once and cuts the cells straight into blocks,
+ * in O(n log n), rather than inserting them one at a time.
+ */
+final class RunningScores {
+    private static final int MIN_BLOCK_SIZE = 16;
+
+    private final Counts leftCounts = new Counts();
+    private final Counts rightCounts = new Counts();
+    private final List<Block> blocks = new ArrayList<>();
+    private int blockSize = MIN_BLOCK_SIZE;
+    private int[] scratch = new int[2 * MIN_BLOCK_SIZE];
+    private int cells;
+    private long similarity;
+    private long distance;
+    private long size;
+
+    static RunningScores of(final Main.Input input) {
+        final var left = Locations.sorted(input.leftList());
+        final var right = Locations.sorted(input.rightList());
+        final var scores = new RunningScores();
+
+        // one cell per distinct value, at the level D takes just after it
+        final var xs = new int[left.length + right.length];
+        final var levels = new int[xs.length];
+        var count = 0;
+        var level = 0;
+        var i = 0;
+        var j = 0;
+        while (i < left.length || j < right.length) {
+            final var value = j == right.length || (i < left.length && left[i] <= right[j])
+                ? left[i]
+                : right[j];
+            var leftCount = 0;
+            while (i < left.length && left[i] == value) {
+                leftCount++;
+                i++;
+            }
+            var rightCount = 0;
+            while (j < right.length && right[j] == value) {
+                rightCount++;
+                j++;
+            }
+
+            if (leftCount > 0) {
+                scores.leftCounts.add(value, leftCount);
+            }
+            if (rightCount > 0) {
+                scores.rightCounts.add(value, rightCount);
+            }
+            scores.similarity += (long) value * leftCount * rightCount;
+            level += leftCount - rightCount;
+            xs[count] = value;
+            levels[count] = level;
+            count++;
+        }
+
+        final var weights = new long[count];
+        for (int k = 0; k + 1 < count; k++) {
+            weights[k] = (long) xs[k + 1] - xs[k];
+        }
+
+        scores.size = left.length;
+        scores.cells = count;
+        scores.resize();
+        scores.place(0, xs, levels, weights, count);
+        return scores;
+    }
+
+    long distance() {
+        return distance;
+    }
+
+    long similarity() {
+        return similarity;
+    }
+
+    long size() {
+        return size;
+    }
+
+    void insert(final int left, final int right) {
+        addCell(left);
+        addCell(right);
+
+        similarity += (long) left * rightCounts.get(left);
+        leftCounts.add(left, 1);
+        similarity += (long) right * leftCounts.get(right);
+        rightCounts.add(right, 1);
+        size++;
+
+        shift(left, right, 1);
+    }
+
+    /**
+     * Removes one occurrence of {@code left} from the left list and one of
+     * {@code right} from the right list. They need not have been inserted
+     * together.
+     */
+    void remove(final int left, final int right) {
+        if (leftCounts.get(left) == 0 || rightCounts.get(right) == 0) {
+            throw new IllegalArgumentException("No pair (" + left + ", " + right + ") to remove");
+        }
+
+        rightCounts.add(right, -1);
+        similarity -= (long) right * leftCounts.get(right);
+        leftCounts.add(left, -1);
+        similarity -= (long) left * rightCounts.get(left);
+        size--;
+
+        shift(left, right, -1);
+        removeCell(left);
+        removeCell(right);
+    }
+
+    private void shift(final int left, final int right, final int sign) {
+        if (left < right) {
+            add(left, right, sign);
+        } else if (right < left) {
+            add(right, left, -sign);
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the level of every cell starting in
+     * {@code [from, to)}. Both ends must already be cells.
+     */
+    private void add(final int from, final int to, final int delta) {
+        final var first = blockOf(from);
+        final var last = blockOf(to);
+
+        final var firstBlock = blocks.get(first);
+        final var end = first == last ? firstBlock.indexOf(to) : firstBlock.size;
+        update(firstBlock, firstBlock.indexOf(from), end, delta);
+
+        for (int i = first + 1; i < last; i++) {
+            final var block = blocks.get(i);
+            distance -= block.absoluteSum;
+            block.shift(delta);
+            distance += block.absoluteSum;
+        }
+
+        if (first != last) {
+            final var lastBlock = blocks.get(last);
+            update(lastBlock, 0, lastBlock.indexOf(to), delta);
+        }
+    }
+
+    private void update(final Block block, final int from, final int to, final int delta) {
+        if (from == to) {
+            return;
+        }
+
+        distance -= block.absoluteSum;
+        block.add(from, to, delta, scratch);
+        distance += block.absoluteSum;
+    }
+
+    /**
+     * Splits the cell containing {@code value} so that a cell starts exactly
+     * at it. The new cell inherits the level of the one it was cut from.
+     */
+    private void addCell(final int value) {
+        if (blocks.isEmpty()) {
+            final var block = new Block(2 * blockSize);
+            block.insert(0, value, 0, 0);
+            blocks.add(block);
+            cells++;
+            return;
+        }
+
+        final var blockIndex = blockOf(value);
+        final var block = blocks.get(blockIndex);
+        final var index = block.indexOf(value);
+        if (index >= 0) {
+            return;
+        }
+
+        final var previous = -index - 2;
+        distance -= block.absoluteSum;
+        if (previous < 0) {
+            // before every other value, where D is zero
+            block.insert(0, value, -block.offset, (long) block.xs[0] - value);
+        } else {
+            final var cellEnd = (long) block.xs[previous] + block.weights[previous];
+            final var isLastCell = blockIndex == blocks.size() - 1 && previous == block.size - 1;
+            block.weights[previous] = (long) value - block.xs[previous];
+            block.insert(previous + 1, value, block.levels[previous], isLastCell ? 0 : cellEnd - value);
+        }
+        distance += block.absoluteSum;
+        cells++;
+
+        if (block.size == block.xs.length) {
+            repartition(blockIndex, blockIndex);
+        }
+        resize();
+    }
+
+    /**
+     * Merges the cell at {@code value} into the one before it once neither
+     * list holds {@code value} any more. D no longer steps there, so both
+     * cells are already at the same level.
+     */
+    private void removeCell(final int value) {
+        if (blocks.isEmpty() || leftCounts.get(value) != 0 || rightCounts.get(value) != 0) {
+            return;
+        }
+
+        final var blockIndex = blockOf(value);
+        final var block = blocks.get(blockIndex);
+        final var index = block.indexOf(value);
+        if (index < 0) {
+            // already merged, when the pair was (value, value)
+            return;
+        }
+
+        final var isLastCell = blockIndex == blocks.size() - 1 && index == block.size - 1;
+        if (index > 0) {
+            block.weights[index - 1] = isLastCell ? 0 : block.weights[index - 1] + block.weights[index];
+        } else if (blockIndex > 0) {
+            final var previous = blocks.get(blockIndex - 1);
+            final var last = previous.size - 1;
+            distance -= previous.absoluteSum;
+            previous.setWeight(last, isLastCell ? 0 : previous.weights[last] + block.weights[0]);
+            distance += previous.absoluteSum;
+        }
+        // otherwise it was the first cell, and D is zero before it anyway
+
+        distance -= block.absoluteSum;
+        block.remove(index);
+        distance += block.absoluteSum;
+        cells--;
+
+        if (block.size == 0) {
+            blocks.remove(blockIndex);
+        } else if (blocks.size() > 1 && block.size < blockSize / 4) {
+            final var neighbour = blockIndex == blocks.size() - 1 ? blockIndex - 1 : blockIndex + 1;
+            repartition(Math.min(blockIndex, neighbour), Math.max(blockIndex, neighbour));
+        }
+        resize();
+    }
+
+    /**
+     * Re-cuts every block to a new size once the number of cells has drifted
+     * a factor of four from {@code blockSize^2}.
+     */
+    private void resize() {
+        final var square = (long) blockSize * blockSize;
+        if (cells <= 4 * square && (blockSize == MIN_BLOCK_SIZE || 4L * cells >= square)) {
+            return;
+        }
+
+        blockSize = Math.max(MIN_BLOCK_SIZE, (int) Math.sqrt(cells));
+        scratch = new int[2 * blockSize];
+        if (!blocks.isEmpty()) {
+            repartition(0, blocks.size() - 1);
+        }
+    }
+
+    /**
+     * Replaces the blocks {@code first} to {@code last}, inclusive, with
+     * blocks of about {@code blockSize} cells holding the same cells.
+     */
+    private void repartition(final int first, final int last) {
+        var count = 0;
+        for (int i = first; i <= last; i++) {
+            count += blocks.get(i).size;
+        }
+
+        final var xs = new int[count];
+        final var levels = new int[count];
+        final var weights = new long[count];
+        var position = 0;
+        for (int i = first; i <= last; i++) {
+            final var block = blocks.get(i);
+            distance -= block.absoluteSum;
+            block.copyTo(xs, levels, weights, position);
+            position += block.size;
+        }
+        blocks.subList(first, last + 1).clear();
+
+        place(first, xs, levels, weights, count);
+    }
+
+    /**
+     * Cuts the first {@code count} cells into blocks of about
+     * {@code blockSize} and inserts them at {@code index}. Levels are
+     * absolute.
+     */
+    private void place(final int index, final int[] xs, final int[] levels, final long[] weights, final int count) {
+        if (count == 0) {
+            return;
+        }
+
+        final var pieces = Math.max(1, (count + blockSize / 2) / blockSize);
+        for (int piece = 0; piece < pieces; piece++) {
+            final var from = (int) ((long) count * piece / pieces);
+            final var to = (int) ((long) count * (piece + 1) / pieces);
+            final var block = Block.of(2 * blockSize, xs, levels, weights, from, to - from);
+            blocks.add(index + piece, block);
+            distance += block.absoluteSum;
+        }
+    }
+
+    /**
+     * The index of the last block starting at or before {@code value}, or
+     * zero if there is none.
+     */
+    private int blockOf(final int value) {
+        var lo = 0;
+        var hi = blocks.size() - 1;
+        while (lo < hi) {
+            final var mid = (lo + hi + 1) >>> 1;
+            if (blocks.get(mid).xs[0] <= value) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        return lo;
+    }
+
+    private static final class Block {
+        private final int[] xs;
+        // levels are relative to offset; a cell's D is levels[i] + offset
+        private final int[] levels;
+        private final long[] weights;
+        // cell indices in ascending order of level
+        private final int[] order;
+        private int size;
+        private int offset;
+
+        // the distinct levels in ascending order, with prefix sums of the
+        // weight and weight * level of the cells at each one
+        private final int[] sortedLevels;
+        private final long[] prefixWeight;
+        private final long[] prefixLevelWeight;
+        private int distinct;
+        private int negatives;
+        private long absoluteSum;
+
+        Block(final int capacity) {
+            xs = new int[capacity];
+            levels = new int[capacity];
+            weights = new long[capacity];
+            order = new int[capacity];
+            sortedLevels = new int[capacity];
+            prefixWeight = new long[capacity + 1];
+            prefixLevelWeight = new long[capacity + 1];
+        }
+
+        static Block of(
+            final int capacity,
+            final int[] xs,
+            final int[] levels,
+            final long[] weights,
+            final int from,
+            final int length
+        ) {
+            final var block = new Block(capacity);
+            System.arraycopy(xs, from, block.xs, 0, length);
+            System.arraycopy(levels, from, block.levels, 0, length);
+            System.arraycopy(weights, from, block.weights, 0, length);
+            block.size = length;
+
+            // sort the cells by level, carrying the index in the low half
+            final var keys = new long[length];
+            for (int i = 0; i < length; i++) {
+                keys[i] = (long) block.levels[i] << 32 | i;
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < length; i++) {
+                block.order[i] = (int) keys[i];
+            }
+
+            block.aggregate();
+            return block;
+        }
+
+        /**
+         * Copies the cells to {@code position} onward, with absolute levels.
+         */
+        void copyTo(final int[] xs, final int[] levels, final long[] weights, final int position) {
+            System.arraycopy(this.xs, 0, xs, position, size);
+            System.arraycopy(this.weights, 0, weights, position, size);
+            for (int i = 0; i < size; i++) {
+                levels[position + i] = this.levels[i] + offset;
+            }
+        }
+
+        int indexOf(final int value) {
+            return Arrays.binarySearch(xs, 0, size, value);
+        }
+
+        void insert(final int index, final int value, final int level, final long weight) {
+            System.arraycopy(xs, index, xs, index + 1, size - index);
+            System.arraycopy(levels, index, levels, index + 1, size - index);
+            System.arraycopy(weights, index, weights, index + 1, size - index);
+            xs[index] = value;
+            levels[index] = level;
+            weights[index] = weight;
+
+            var position = size;
+            for (int i = size - 1; i >= 0; i--) {
+                if (order[i] >= index) {
+                    order[i]++;
+                }
+                if (levels[order[i]] > level) {
+                    position = i;
+                }
+            }
+            System.arraycopy(order, position, order, position + 1, size - position);
+            order[position] = index;
+            size++;
+
+            aggregate();
+        }
+
+        /**
+         * Adds {@code delta} to the cells in {@code [from, to)}. The shifted
+         * and unshifted cells each stay in order among themselves, so the
+         * order is restored by merging the two runs rather than re-sorting.
+         */
+        void add(final int from, final int to, final int delta, final int[] scratch) {
+            for (int i = from; i < to; i++) {
+                levels[i] += delta;
+            }
+
+            // split the order into the shifted run followed by the unshifted one
+            final var shifted = to - from;
+            var left = 0;
+            var right = shifted;
+            for (int i = 0; i < size; i++) {
+                final var cell = order[i];
+                if (cell >= from && cell < to) {
+                    scratch[left++] = cell;
+                } else {
+                    scratch[right++] = cell;
+                }
+            }
+
+            left = 0;
+            right = shifted;
+            for (int i = 0; i < size; i++) {
+                if (right == size || (left < shifted && levels[scratch[left]] <= levels[scratch[right]])) {
+                    order[i] = scratch[left++];
+                } else {
+                    order[i] = scratch[right++];
+                }
+            }
+
+            aggregate();
+        }
+
+        void remove(final int index) {
+            System.arraycopy(xs, index + 1, xs, index, size - index - 1);
+            System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+            System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+
+            var position = 0;
+            for (int i = 0; i < size; i++) {
+                final var cell = order[i];
+                if (cell != index) {
+                    order[position++] = cell > index ? cell - 1 : cell;
+                }
+            }
+            size--;
+
+            aggregate();
+        }
+
+        void setWeight(final int index, final long weight) {
+            weights[index] = weight;
+            aggregate();
+        }
+
+        void shift(final int delta) {
+            offset += delta;
+            while (negatives > 0 && sortedLevels[negatives - 1] + offset >= 0) {
+                negatives--;
+            }
+            while (negatives < distinct && sortedLevels[negatives] + offset < 0) {
+                negatives++;
+            }
+            updateAbsoluteSum();
+        }
+
+        private void aggregate() {
+            distinct = 0;
+            for (int i = 0; i < size; i++) {
+                final var level = levels[order[i]];
+                final var weight = weights[order[i]];
+                if (distinct == 0 || sortedLevels[distinct - 1] != level) {
+                    sortedLevels[distinct] = level;
+                    prefixWeight[distinct + 1] = prefixWeight[distinct];
+                    prefixLevelWeight[distinct + 1] = prefixLevelWeight[distinct];
+                    distinct++;
+                }
+                prefixWeight[distinct] += weight;
+                prefixLevelWeight[distinct] += weight * level;
+            }
+
+            negatives = 0;
+            while (negatives < distinct && sortedLevels[negatives] + offset < 0) {
+                negatives++;
+            }
+            updateAbsoluteSum();
+        }
+
+        private void updateAbsoluteSum() {
+            final var levelWeight = prefixLevelWeight[distinct] - 2 * prefixLevelWeight[negatives];
+            final var weight = prefixWeight[distinct] - 2 * prefixWeight[negatives];
+            absoluteSum = levelWeight + offset * weight;
+        }
+    }
+
+    /**
+     * An open-addressing multiset of ints. A key whose count drops to zero
+     * is removed, shifting later entries of its probe run back into the gap.
+     */
+    private static final class Counts {
+        private int[] keys = new int[16];
+        private int[] counts = new int[16];
+        private boolean[] occupied = new boolean[16];
+        private int size;
+
+        int get(final int key) {
+            final var slot = slot(key);
+            return occupied[slot] ? counts[slot] : 0;
+        }
+
+        void add(final int key, final int delta) {
+            var slot = slot(key);
+            if (!occupied[slot]) {
+                if (2 * (size + 1) > keys.length) {
+                    grow();
+                    slot = slot(key);
+                }
+                occupied[slot] = true;
+                keys[slot] = key;
+                counts[slot] = 0;
+                size++;
+            }
+            counts[slot] += delta;
+            if (counts[slot] == 0) {
+                remove(slot);
+            }
+        }
+
+        private void remove(final int slot) {
+            final var mask = keys.length - 1;
+            occupied[slot] = false;
+            size--;
+
+            var hole = slot;
+            for (var next = (slot + 1) & mask; occupied[next]; next = (next + 1) & mask) {
+                // an entry may only move back if that keeps it at or after its home slot
+                if (((next - home(keys[next])) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    counts[hole] = counts[next];
+                    occupied[hole] = true;
+                    occupied[next] = false;
+                    hole = next;
+                }
+            }
+        }
+
+        private int slot(final int key) {
+            final var mask = keys.length - 1;
+            var slot = home(key);
+            while (occupied[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+
+            return slot;
+        }
+
+        private int home(final int key) {
+            // Fibonacci hashing, taking the well-mixed high bits
+            return (key * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(keys.length - 1);
+        }
+
+        private void grow() {
+            final var oldKeys = keys;
+            final var oldCounts = counts;
+            final var oldOccupied = occupied;
+            keys = new int[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            occupied = new boolean[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldOccupied[i]) {
+                    final var slot = slot(oldKeys[i]);
+                    occupied[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+}
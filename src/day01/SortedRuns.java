@@ -0,0 +1,310 @@
+package day01;
+
+import common.ByteCursor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Out-of-core scoring for location lists too large for the heap.
+ * <p>
+ * The input is read in windows and each column is cut into runs that fit the
+ * memory budget. Every run is sorted in place with {@link Locations#sort}
+ * and spilled to a per-column temp file. Scoring then k-way merges the runs of
+ * both columns as two sorted streams, so only one read buffer per run is
+ * resident at a time.
+ */
+final class SortedRuns implements AutoCloseable {
+    private static final int WINDOW_BYTES = 64 << 20;
+    private static final int MIN_BUFFER_BYTES = 8 << 10;
+    private static final int MAX_BUFFER_BYTES = 1 << 20;
+
+    private final Column left;
+    private final Column right;
+    private final long memoryBudget;
+
+    private SortedRuns(final Column left, final Column right, final long memoryBudget) {
+        this.left = left;
+        this.right = right;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Splits {@code input} into sorted runs on disk. Roughly
+     * {@code memoryBudget} bytes of heap are used: while spilling, a run of
+     * each column, one shared sort scratch array of the same length and one
+     * write buffer; while merging, the per-run read buffers (never less than
+     * 8 KiB per run).
+     */
+    static SortedRuns spill(final Path input, final long memoryBudget) throws Exception {
+        final var writeBytes = Math.clamp(memoryBudget / 16, MIN_BUFFER_BYTES, MAX_BUFFER_BYTES) & -Integer.BYTES;
+        // the left run, the right run and the scratch they take turns sorting in
+        final var runLength = Math.clamp(
+            (memoryBudget - writeBytes) / (3L * Integer.BYTES),
+            1,
+            Integer.MAX_VALUE - 8
+        );
+        final var left = new Column();
+        final var right = new Column();
+        final var result = new SortedRuns(left, right, memoryBudget);
+        try (final var channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final var leftRun = new int[runLength];
+            final var rightRun = new int[runLength];
+            final var scratch = new int[runLength];
+            final var buffer = ByteBuffer.allocate(writeBytes);
+            var size = 0;
+            var offset = 0L;
+            while (offset < channel.size()) {
+                final var cursor = ByteCursor.mapLines(channel, offset, WINDOW_BYTES);
+                while (cursor.hasNextNumber()) {
+                    leftRun[size] = cursor.nextInt();
+                    rightRun[size] = cursor.nextInt();
+                    if (++size == runLength) {
+                        left.spill(leftRun, size, scratch, buffer);
+                        right.spill(rightRun, size, scratch, buffer);
+                        size = 0;
+                    }
+                }
+                offset += cursor.limit();
+            }
+            if (size > 0) {
+                left.spill(leftRun, size, scratch, buffer);
+                right.spill(rightRun, size, scratch, buffer);
+            }
+        } catch (final Exception e) {
+            result.close();
+            throw e;
+        }
+
+        return result;
+    }
+
+    long distance() throws Exception {
+        final var leftMerge = left.merge(bufferBytes());
+        final var rightMerge = right.merge(bufferBytes());
+
+        var sum = 0L;
+        while (leftMerge.hasNext()) {
+            sum += Math.abs((long) leftMerge.next() - rightMerge.next());
+        }
+
+        return sum;
+    }
+
+    /**
+     * The streaming counterpart of {@link Locations#similarity}: equal values
+     * are counted off both merged streams and multiplied together.
+     */
+    long similarity() throws Exception {
+        final var leftMerge = left.merge(bufferBytes());
+        final var rightMerge = right.merge(bufferBytes());
+
+        var sum = 0L;
+        while (leftMerge.hasNext() && rightMerge.hasNext()) {
+            final var leftValue = leftMerge.peek();
+            final var rightValue = rightMerge.peek();
+            if (leftValue < rightValue) {
+                leftMerge.skip(leftValue);
+            } else if (leftValue > rightValue) {
+                rightMerge.skip(rightValue);
+            } else {
+                sum += (long) leftValue * leftMerge.skip(leftValue) * rightMerge.skip(rightValue);
+            }
+        }
+
+        return sum;
+    }
+
+    private int bufferBytes() {
+        final var runs = left.runCount + right.runCount;
+        final var perRun = memoryBudget / Math.max(1, runs);
+        return Math.clamp(perRun, MIN_BUFFER_BYTES, MAX_BUFFER_BYTES) & -Integer.BYTES;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            left.close();
+        } finally {
+            right.close();
+        }
+    }
+
+    private static final class Column implements AutoCloseable {
+        private final Path file;
+        private final FileChannel channel;
+        private long[] runEnds = new long[16];
+        private int runCount;
+
+        Column() throws Exception {
+            file = Files.createTempFile("day01-", ".run");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        void spill(final int[] run, final int size, final int[] scratch, final ByteBuffer buffer) throws Exception {
+            Locations.sort(run, size, scratch);
+            for (int i = 0; i < size; i++) {
+                if (!buffer.hasRemaining()) {
+                    write(buffer);
+                }
+                buffer.putInt(run[i]);
+            }
+            write(buffer);
+
+            if (runCount == runEnds.length) {
+                runEnds = Arrays.copyOf(runEnds, runCount * 2);
+            }
+            runEnds[runCount++] = channel.position();
+        }
+
+        private void write(final ByteBuffer buffer) throws Exception {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        Merge merge(final int bufferBytes) throws Exception {
+            final var readers = new RunReader[runCount];
+            for (int i = 0; i < runCount; i++) {
+                readers[i] = new RunReader(channel, i == 0 ? 0 : runEnds[i - 1], runEnds[i], bufferBytes);
+            }
+
+            return new Merge(readers);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * A sorted stream over one spilled run, refilled with positional reads so
+     * that several readers can share the column's channel.
+     */
+    private static final class RunReader {
+        private final FileChannel channel;
+        private final long end;
+        private final ByteBuffer buffer;
+        private long position;
+        private int head;
+
+        RunReader(final FileChannel channel, final long start, final long end, final int bufferBytes) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.buffer = ByteBuffer.allocate(bufferBytes);
+            buffer.flip();
+        }
+
+        /**
+         * Loads the next value into {@link #head}, returning false once the
+         * run is exhausted.
+         */
+        boolean advance() throws Exception {
+            if (!buffer.hasRemaining()) {
+                if (position >= end) {
+                    return false;
+                }
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining()) {
+                    position += channel.read(buffer, position);
+                }
+                buffer.flip();
+            }
+            head = buffer.getInt();
+            return true;
+        }
+    }
+
+    /**
+     * A k-way merge of runs, ordered by a binary min-heap of reader indices
+     * keyed on each reader's head value.
+     */
+    private static final class Merge {
+        private final RunReader[] readers;
+        private final int[] heap;
+        private int size;
+
+        Merge(final RunReader[] readers) throws Exception {
+            this.readers = readers;
+            this.heap = new int[readers.length];
+            for (int i = 0; i < readers.length; i++) {
+                if (readers[i].advance()) {
+                    heap[size++] = i;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        boolean hasNext() {
+            return size > 0;
+        }
+
+        int peek() {
+            return readers[heap[0]].head;
+        }
+
+        int next() throws Exception {
+            final var top = readers[heap[0]];
+            final var value = top.head;
+            if (!top.advance()) {
+                heap[0] = heap[--size];
+            }
+            siftDown(0);
+            return value;
+        }
+
+        /**
+         * Consumes every occurrence of {@code value} at the front of the
+         * stream and returns how many there were.
+         */
+        long skip(final int value) throws Exception {
+            var count = 0L;
+            while (hasNext() && peek() == value) {
+                next();
+                count++;
+            }
+
+            return count;
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                final var leftChild = 2 * index + 1;
+                if (leftChild >= size) {
+                    return;
+                }
+                final var rightChild = leftChild + 1;
+                final var smallest = rightChild < size && head(rightChild) < head(leftChild)
+                    ? rightChild
+                    : leftChild;
+                if (head(index) <= head(smallest)) {
+                    return;
+                }
+                final var swap = heap[index];
+                heap[index] = heap[smallest];
+                heap[smallest] = swap;
+                index = smallest;
+            }
+        }
+
+        private int head(final int heapIndex) {
+            return readers[heap[heapIndex]].head;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package day02;
+
+import common.ByteCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Splits a report file at line breaks into chunks of roughly equal size and
+ * counts each chunk on the common fork-join pool.
+ * <p>
+ * A chunk is only read and parsed when a worker picks it up, and it is
+ * dropped once counted. Each worker reads its chunks with positional reads
+ * into one reused heap buffer rather than mapping them, since a mapping
+ * holds a slot of the process's map limit until it is garbage collected.
+ * At most one chunk per worker is resident, so peak memory follows the
+ * chunk size and the parallelism, not the file size.
+ */
+final class ChunkedReports {
+    private ChunkedReports() {
+    }
+
+    static long count(
+        final Path input,
+        final int chunkBytes,
+        final ToLongFunction<Main.Reports> counter
+    ) throws Exception {
+        try (final var channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final var boundaries = boundaries(channel, chunkBytes);
+            // chunks run on to the end of a line, so some exceed chunkBytes
+            var longest = 0L;
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                longest = Math.max(longest, boundaries[i + 1] - boundaries[i]);
+            }
+            final var bufferBytes = Math.toIntExact(longest);
+            final var buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(bufferBytes));
+
+            return IntStream.range(0, boundaries.length - 1)
+                .parallel()
+                .mapToLong(chunk -> {
+                    try {
+                        final var buffer = buffers.get().clear();
+                        buffer.limit(Math.toIntExact(boundaries[chunk + 1] - boundaries[chunk]));
+                        while (buffer.hasRemaining()) {
+                            if (channel.read(buffer, boundaries[chunk] + buffer.position()) < 0) {
+                                break;
+                            }
+                        }
+                        return counter.applyAsLong(Main.parse(new ByteCursor(buffer.flip())));
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .sum();
+        }
+    }
+
+    /**
+     * The chunk start offsets, each moved forward to the start of a line,
+     * followed by the file size.
+     */
+    private static long[] boundaries(final FileChannel channel, final int chunkBytes) throws IOException {
+        final var size = channel.size();
+        final var chunks = (int) Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+        final var boundaries = new long[chunks + 1];
+        final var buffer = ByteBuffer.allocate(256);
+        for (int i = 1; i < chunks; i++) {
+            boundaries[i] = Math.max(boundaries[i - 1], nextLineStart(channel, (long) i * chunkBytes, buffer));
+        }
+        boundaries[chunks] = size;
+
+        return boundaries;
+    }
+
+    private static long nextLineStart(
+        final FileChannel channel,
+        final long offset,
+        final ByteBuffer buffer
+    ) throws IOException {
+        // a chunk may start right after a line break
+        var position = offset - 1;
+        while (true) {
+            buffer.clear();
+            final var read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package day02;
 
-import java.nio.file.Files;
+import common.ByteCursor;
+
 import java.nio.file.Path;
 import java.util.Arrays;
-import java.util.List;
 import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 public class Main {
     public static void main() throws Exception {
@@ -14,52 +13,151 @@ public class Main {
     }
 
     static long part1() throws Exception {
-        final var lines = Files.readAllLines(Path.of("./src/day02/input.txt"));
+        return part1(parseInput(Path.of("./src/day02/input.txt")));
+    }
 
-        return parseInput(lines)
-            .stream()
-            .filter(Main::isSafe)
+    static long part1(final Reports reports) {
+        return IntStream.range(0, reports.count())
+            .filter(report -> isSafe(reports.levels, reports.start(report), reports.end(report)))
             .count();
     }
 
     static long part2() throws Exception {
-        final var lines = Files.readAllLines(Path.of("./src/day02/input.txt"));
+        return part2(parseInput(Path.of("./src/day02/input.txt")));
+    }
 
-        return parseInput(lines)
-            .stream()
-            .filter(line -> isSafe(line) || isSafeWithProblemDampener(line))
+    static long part2(final Reports reports) {
+        return IntStream.range(0, reports.count())
+            .filter(report -> isSafeWithProblemDampener(reports.levels, reports.start(report), reports.end(report)))
             .count();
     }
 
-    static List<List<Integer>> parseInput(final List<String> lines) {
-        return lines.stream()
-            .map(line ->
-                Arrays.stream(line.split("\\s+"))
-                    .map(Integer::parseInt)
-                    .toList()
-            )
-            .toList();
-    }
-
-    static boolean isSafe(final List<Integer> line) {
-        final var differences = IntStream.range(0, line.size() - 1)
-            .map(i -> line.get(i) - line.get(i + 1))
-            .boxed()
-            .toList();
-        final var allPositive = differences.stream().allMatch(x -> x > 0);
-        final var allNegative = differences.stream().allMatch(x -> x < 0);
-        final var notTooSteep = differences.stream().allMatch(x -> Math.abs(x) <= 3);
-        return (allPositive || allNegative) && notTooSteep;
-    }
-
-    static boolean isSafeWithProblemDampener(final List<Integer> line) {
-        return IntStream.range(0, line.size())
-            .mapToObj(i ->
-                IntStream.range(0, line.size())
-                    .filter(j -> i != j)
-                    .mapToObj(line::get)
-            )
-            .map(Stream::toList)
-            .anyMatch(Main::isSafe);
+    enum Engine {
+        SCALAR, VECTOR
+    }
+
+    static long part1(final Reports reports, final Engine engine) {
+        return switch (engine) {
+            case SCALAR -> part1(reports);
+            case VECTOR -> VectorReports.countSafe(reports, false);
+        };
+    }
+
+    static long part2(final Reports reports, final Engine engine) {
+        return switch (engine) {
+            case SCALAR -> part2(reports);
+            case VECTOR -> VectorReports.countSafe(reports, true);
+        };
+    }
+
+    /**
+     * Counts the safe reports in {@code input} in parallel chunks of about
+     * {@code chunkBytes}, without ever holding the whole file.
+     */
+    static long part1(final Path input, final int chunkBytes) throws Exception {
+        return ChunkedReports.count(input, chunkBytes, Main::part1);
+    }
+
+    static long part2(final Path input, final int chunkBytes) throws Exception {
+        return ChunkedReports.count(input, chunkBytes, Main::part2);
+    }
+
+    /**
+     * Every report's levels back to back in {@code levels}, with report
+     * {@code i} spanning {@code [offsets[i], offsets[i + 1])}.
+     */
+    record Reports(int[] levels, int[] offsets) {
+        int count() {
+            return offsets.length - 1;
+        }
+
+        int start(final int report) {
+            return offsets[report];
+        }
+
+        int end(final int report) {
+            return offsets[report + 1];
+        }
+    }
+
+    static Reports parseInput(final Path input) throws Exception {
+        return parse(ByteCursor.map(input));
+    }
+
+    static Reports parse(final ByteCursor cursor) {
+        var levels = new int[1024];
+        var offsets = new int[256];
+        var levelCount = 0;
+        var reportCount = 0;
+        while (cursor.hasNextNumber()) {
+            while (cursor.hasNextNumberOnLine()) {
+                if (levelCount == levels.length) {
+                    levels = Arrays.copyOf(levels, levelCount * 2);
+                }
+                levels[levelCount++] = cursor.nextInt();
+            }
+            if (reportCount + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[++reportCount] = levelCount;
+        }
+
+        return new Reports(
+            Arrays.copyOf(levels, levelCount),
+            Arrays.copyOf(offsets, reportCount + 1)
+        );
+    }
+
+    static boolean isSafe(final int[] levels, final int from, final int to) {
+        return firstUnsafe(levels, from, to, -1, 1) < 0 ||
+            firstUnsafe(levels, from, to, -1, -1) < 0;
+    }
+
+    /**
+     * With a fixed direction, an unsafe step between {@code i} and
+     * {@code i + 1} survives removing any other level, so only those two
+     * are worth trying. Trying both directions covers removals that change
+     * which way the report runs.
+     */
+    static boolean isSafeWithProblemDampener(final int[] levels, final int from, final int to) {
+        for (int direction = 1; direction >= -1; direction -= 2) {
+            final var unsafe = firstUnsafe(levels, from, to, -1, direction);
+            if (unsafe < 0 ||
+                firstUnsafe(levels, Math.max(from, unsafe - 1), to, unsafe, direction) < 0 ||
+                firstUnsafe(levels, Math.max(from, unsafe - 1), to, unsafe + 1, direction) < 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the index of the first level in {@code [from, to)} whose step to
+     * the next is not 1 to 3 in {@code direction}, or -1 if there is none.
+     * The level at {@code skip} is treated as removed.
+     */
+    static int firstUnsafe(
+        final int[] levels,
+        final int from,
+        final int to,
+        final int skip,
+        final int direction
+    ) {
+        var previous = -1;
+        for (int i = from; i < to; i++) {
+            if (i == skip) {
+                continue;
+            }
+            if (previous >= 0) {
+                final var step = (levels[i] - levels[previous]) * direction;
+                if (step < 1 || step > 3) {
+                    return previous;
+                }
+            }
+            previous = i;
+        }
+
+        return -1;
     }
 }
@@ -0,0 +1,104 @@
+package day02;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Validates one report per vector lane.
+ * <p>
+ * A batch of reports is walked position by position. Each step gathers the
+ * next level of every report in the batch. The lane-wise differences give a
+ * sign mask and an {@code abs <= 3} mask, which are folded into running
+ * "all increasing" and "all decreasing" masks. Lanes whose report has already
+ * ended are masked out, so reports of different lengths share a batch; their
+ * gather index stays clamped to the report's last level, because the gather
+ * range-checks masked-off lanes too. The
+ * reports left over after the last full batch go through the scalar
+ * validator. For part 2, only the reports a batch finds unsafe are retried
+ * with the scalar problem dampener.
+ */
+final class VectorReports {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorReports() {
+    }
+
+    static long countSafe(final Main.Reports reports, final boolean withProblemDampener) {
+        final var levels = reports.levels();
+        final var lanes = SPECIES.length();
+        final var starts = new int[lanes];
+        final var lengths = new int[lanes];
+        final var indices = new int[lanes];
+
+        var count = 0L;
+        var report = 0;
+        for (; levels.length > 0 && report + lanes <= reports.count(); report += lanes) {
+            var maxLength = 0;
+            for (int lane = 0; lane < lanes; lane++) {
+                starts[lane] = reports.start(report + lane);
+                lengths[lane] = reports.end(report + lane) - starts[lane];
+                maxLength = Math.max(maxLength, lengths[lane]);
+            }
+
+            final var safe = safeLanes(levels, starts, lengths, indices, maxLength);
+            count += safe.trueCount();
+            if (withProblemDampener) {
+                for (int lane = 0; lane < lanes; lane++) {
+                    if (!safe.laneIsSet(lane) &&
+                        Main.isSafeWithProblemDampener(levels, starts[lane], starts[lane] + lengths[lane])) {
+                        count++;
+                    }
+                }
+            }
+        }
+
+        for (; report < reports.count(); report++) {
+            final var start = reports.start(report);
+            final var end = reports.end(report);
+            if (withProblemDampener
+                ? Main.isSafeWithProblemDampener(levels, start, end)
+                : Main.isSafe(levels, start, end)) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static VectorMask<Integer> safeLanes(
+        final int[] levels,
+        final int[] starts,
+        final int[] lengths,
+        final int[] indices,
+        final int maxLength
+    ) {
+        final var length = IntVector.fromArray(SPECIES, lengths, 0);
+        final var start = IntVector.fromArray(SPECIES, starts, 0);
+        final var last = length.sub(1).max(0);
+        final var maxIndex = levels.length - 1;
+        var increasing = SPECIES.maskAll(true);
+        var decreasing = SPECIES.maskAll(true);
+        start.min(maxIndex).intoArray(indices, 0);
+        var previous = IntVector.fromArray(SPECIES, levels, 0, indices, 0);
+
+        for (int position = 1; position < maxLength; position++) {
+            final var active = length.compare(VectorOperators.GT, position);
+            start.add(last.min(position)).min(maxIndex).intoArray(indices, 0);
+            final var current = IntVector.fromArray(SPECIES, levels, 0, indices, 0);
+            final var difference = current.sub(previous);
+            final var gentle = difference.abs().compare(VectorOperators.LE, 3);
+            final var inactive = active.not();
+
+            increasing = increasing.and(difference.compare(VectorOperators.GT, 0).and(gentle).or(inactive));
+            decreasing = decreasing.and(difference.compare(VectorOperators.LT, 0).and(gentle).or(inactive));
+            if (!increasing.or(decreasing).anyTrue()) {
+                break;
+            }
+            previous = current;
+        }
+
+        return increasing.or(decreasing);
+    }
+}
@@ -1,5 +1,7 @@
 package day03;
 
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.regex.Pattern;
@@ -10,9 +12,11 @@ public class Main {
         System.out.println("Part 2: " + part2());
     }
 
-    static int part1() throws Exception {
-        final var input = parseInput(Path.of("./src/day03/input.txt"));
+    static long part1() throws Exception {
+        return scan(Path.of("./src/day03/input.txt")).total();
+    }
 
+    static int part1(final String input) {
         return Pattern.compile("mul\\((\\d{1,3}),(\\d{1,3})\\)")
             .matcher(input)
             .results()
@@ -23,9 +27,11 @@ public class Main {
 
     record State(boolean enabled, int total) { }
 
-    static int part2() throws Exception {
-        final var input = parseInput(Path.of("./src/day03/input.txt"));
+    static long part2() throws Exception {
+        return scan(Path.of("./src/day03/input.txt")).enabledTotal();
+    }
 
+    static int part2(final String input) {
         return Pattern
             .compile("(mul\\((\\d{1,3}),(\\d{1,3})\\))|(do\\(\\))|(don't\\(\\))")
             .matcher(input)
@@ -45,6 +51,33 @@ public class Main {
             .total;
     }
 
+    /**
+     * Evaluates {@code input} in parallel chunks of {@code chunkBytes}.
+     */
+    static long part1(final Path input, final int chunkBytes) throws Exception {
+        return Segments.summarize(input, chunkBytes).total();
+    }
+
+    static long part2(final Path input, final int chunkBytes) throws Exception {
+        return Segments.summarize(input, chunkBytes).ifEnabled();
+    }
+
+    static ProgramScanner scan(final Path input) throws Exception {
+        try (final var channel = FileChannel.open(input)) {
+            return ProgramScanner.scan(channel, ByteBuffer.allocate(64 * 1024));
+        }
+    }
+
+    /**
+     * The same scan as {@link #scan}, but skipping ahead between candidate
+     * bytes found with the Vector API.
+     */
+    static ProgramScanner scanVector(final Path input) throws Exception {
+        try (final var channel = FileChannel.open(input)) {
+            return VectorScanner.scan(channel, 64 * 1024);
+        }
+    }
+
     static String parseInput(final Path input) throws Exception {
         return String.join(
             "",
@@ -0,0 +1,204 @@
+package day03;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A hand-built state machine for {@code mul(X,Y)}, {@code do()} and
+ * {@code don't()} that consumes the corrupted memory byte by byte.
+ * <p>
+ * All of its state is a handful of ints, so the input can arrive in buffers
+ * of any size. A token split across two buffers simply carries on in the next
+ * one. Line breaks are skipped as if absent, matching the regex solvers,
+ * which join the lines before matching.
+ * <p>
+ * None of the tokens contains an {@code m} or {@code d} after its first
+ * character. So when a partial token fails, the only byte that could start
+ * the next match is the one that broke it. Re-reading just that byte gives
+ * the same leftmost, non-overlapping matches as the regex.
+ */
+final class ProgramScanner {
+    private static final int IDLE = 0;
+    private static final int M = 1;
+    private static final int MU = 2;
+    private static final int MUL = 3;
+    private static final int FIRST = 4;
+    private static final int SECOND = 5;
+    private static final int D = 6;
+    private static final int DO = 7;
+    private static final int DO_OPEN = 8;
+    private static final int DON = 9;
+    private static final int DON_QUOTE = 10;
+    private static final int DON_T = 11;
+    private static final int DON_T_OPEN = 12;
+
+    private int state = IDLE;
+    private int first;
+    private int second;
+    private int digits;
+    private boolean enabled = true;
+    private boolean toggled;
+    private boolean closing;
+    private long total;
+    private long enabledTotal;
+    private long untoggledTotal;
+
+    /**
+     * Reads {@code channel} to the end through {@code buffer}, which is
+     * reused for every read.
+     */
+    static ProgramScanner scan(
+        final ReadableByteChannel channel,
+        final ByteBuffer buffer
+    ) throws Exception {
+        final var scanner = new ProgramScanner();
+        while (channel.read(buffer.clear()) >= 0) {
+            scanner.feed(buffer.flip());
+        }
+
+        return scanner;
+    }
+
+    /**
+     * The sum of every {@code mul}, as in part 1.
+     */
+    long total() {
+        return total;
+    }
+
+    /**
+     * The sum of the {@code mul}s not switched off by {@code don't()}, as in
+     * part 2.
+     */
+    long enabledTotal() {
+        return enabledTotal;
+    }
+
+    /**
+     * The sum of the {@code mul}s seen before the first {@code do()} or
+     * {@code don't()}, whose fate depends on what came before this scanner.
+     */
+    long untoggledTotal() {
+        return untoggledTotal;
+    }
+
+    /**
+     * Whether a {@code do()} or {@code don't()} has been seen, in which case
+     * {@link #enabled()} is the state that carries on after this scanner.
+     */
+    boolean toggled() {
+        return toggled;
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    boolean inToken() {
+        return state != IDLE;
+    }
+
+    /**
+     * From now on, only finish the token already in progress: a byte that
+     * breaks it goes back to idle instead of starting a new token.
+     */
+    void close() {
+        closing = true;
+    }
+
+    void feed(final ByteBuffer buffer) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            accept(buffer.get(i));
+        }
+        buffer.position(buffer.limit());
+    }
+
+    void accept(final byte b) {
+        if (b == '\n' || b == '\r') {
+            return;
+        }
+
+        state = switch (state) {
+            case M -> b == 'u' ? MU : restart(b);
+            case MU -> b == 'l' ? MUL : restart(b);
+            case MUL -> {
+                if (b == '(') {
+                    first = 0;
+                    digits = 0;
+                    yield FIRST;
+                }
+                yield restart(b);
+            }
+            case FIRST -> {
+                if (isDigit(b) && digits < 3) {
+                    first = first * 10 + (b - '0');
+                    digits++;
+                    yield FIRST;
+                }
+                if (b == ',' && digits > 0) {
+                    second = 0;
+                    digits = 0;
+                    yield SECOND;
+                }
+                yield restart(b);
+            }
+            case SECOND -> {
+                if (isDigit(b) && digits < 3) {
+                    second = second * 10 + (b - '0');
+                    digits++;
+                    yield SECOND;
+                }
+                if (b == ')' && digits > 0) {
+                    final var product = first * second;
+                    total += product;
+                    if (enabled) {
+                        enabledTotal += product;
+                    }
+                    if (!toggled) {
+                        untoggledTotal += product;
+                    }
+                    yield IDLE;
+                }
+                yield restart(b);
+            }
+            case D -> b == 'o' ? DO : restart(b);
+            case DO -> b == '(' ? DO_OPEN : b == 'n' ? DON : restart(b);
+            case DO_OPEN -> {
+                if (b == ')') {
+                    enabled = true;
+                    toggled = true;
+                    yield IDLE;
+                }
+                yield restart(b);
+            }
+            case DON -> b == '\'' ? DON_QUOTE : restart(b);
+            case DON_QUOTE -> b == 't' ? DON_T : restart(b);
+            case DON_T -> b == '(' ? DON_T_OPEN : restart(b);
+            case DON_T_OPEN -> {
+                if (b == ')') {
+                    enabled = false;
+                    toggled = true;
+                    yield IDLE;
+                }
+                yield restart(b);
+            }
+            default -> restart(b);
+        };
+    }
+
+    private int restart(final byte b) {
+        if (closing) {
+            return IDLE;
+        }
+
+        return switch (b) {
+            case 'm' -> M;
+            case 'd' -> D;
+            default -> IDLE;
+        };
+    }
+
+    private static boolean isDigit(final byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,138 @@
+package day03;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates a program in independent chunks whose summaries compose.
+ * <p>
+ * Every token that starts inside a chunk belongs to it, even if it runs on
+ * into the next one. The scanner reads past the chunk's end only to finish
+ * such a token. A chunk starting mid-token can't misread the leftover tail,
+ * because no token contains an {@code m} or {@code d} after its first
+ * character. What a chunk's {@code mul}s add up to depends only on whether
+ * it was entered enabled, so each chunk reports both sums and its exit state.
+ * The summaries are then combined with a parallel prefix.
+ * <p>
+ * Chunks are read with positional reads into one reused heap buffer per
+ * worker rather than mapped, since every mapping holds on to a slot of the
+ * process's map limit until it is garbage collected.
+ */
+final class Segments {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // tokens are a dozen bytes or so, so a token left open needs little more
+    private static final int TAIL_BYTES = 64;
+
+    private Segments() {
+    }
+
+    enum Exit {
+        UNCHANGED, ENABLED, DISABLED
+    }
+
+    record Summary(long total, long ifEnabled, long ifDisabled, Exit exit) {
+        static final Summary EMPTY = new Summary(0, 0, 0, Exit.UNCHANGED);
+
+        /**
+         * This chunk followed by {@code next}; associative, with
+         * {@link #EMPTY} as the identity.
+         */
+        Summary then(final Summary next) {
+            return new Summary(
+                total + next.total,
+                ifEnabled + (exit == Exit.DISABLED ? next.ifDisabled : next.ifEnabled),
+                ifDisabled + (exit == Exit.ENABLED ? next.ifEnabled : next.ifDisabled),
+                next.exit == Exit.UNCHANGED ? exit : next.exit
+            );
+        }
+    }
+
+    static Summary summarize(final Path input, final int chunkBytes) throws Exception {
+        try (final var channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final var size = channel.size();
+            final var chunks = (int) Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+            final var buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_BYTES));
+            final var summaries = IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    try {
+                        return summarize(
+                            channel,
+                            (long) chunk * chunkBytes,
+                            Math.min(size, (long) (chunk + 1) * chunkBytes),
+                            buffers.get()
+                        );
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .toArray(Summary[]::new);
+
+            Arrays.parallelPrefix(summaries, Summary::then);
+            return summaries[chunks - 1];
+        }
+    }
+
+    private static Summary summarize(
+        final FileChannel channel,
+        final long start,
+        final long end,
+        final ByteBuffer buffer
+    ) throws IOException {
+        final var scanner = new ProgramScanner();
+        for (var position = start; position < end; ) {
+            final var read = read(channel, buffer.clear().limit((int) Math.min(buffer.capacity(), end - position)), position);
+            if (read == 0) {
+                break;
+            }
+            scanner.feed(buffer.flip());
+            position += read;
+        }
+
+        // finish a token left open at the end of the chunk
+        scanner.close();
+        for (var position = end; scanner.inToken(); ) {
+            final var read = read(channel, buffer.clear().limit(TAIL_BYTES), position);
+            if (read == 0) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining() && scanner.inToken()) {
+                scanner.accept(buffer.get());
+            }
+            position += read;
+        }
+
+        final var ifEnabled = scanner.enabledTotal();
+        final var afterToggle = scanner.toggled() ? ifEnabled - scanner.untoggledTotal() : 0;
+        return new Summary(
+            scanner.total(),
+            ifEnabled,
+            afterToggle,
+            scanner.toggled() ? (scanner.enabled() ? Exit.ENABLED : Exit.DISABLED) : Exit.UNCHANGED
+        );
+    }
+
+    /**
+     * Fills {@code buffer} from {@code position} onward, stopping early only
+     * at the end of the file. Returns the number of bytes read.
+     */
+    private static int read(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        var read = 0;
+        while (buffer.hasRemaining()) {
+            final var n = channel.read(buffer, position + read);
+            if (n < 0) {
+                break;
+            }
+            read += n;
+        }
+
+        return read;
+    }
+}
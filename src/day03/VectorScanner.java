@@ -0,0 +1,79 @@
+package day03;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Drives a {@link ProgramScanner} only where a token could start.
+ * <p>
+ * While the scanner is idle, any byte other than {@code m} or {@code d}
+ * leaves it idle, so those bytes can be skipped. Each vector-sized block of
+ * input is compared against both letters at once. The lanes that match form
+ * a candidate bitmask, and only the set bits (and the bytes of any token they
+ * open) are fed to the scanner. A token still open at the end of a buffer is
+ * finished from the start of the next one.
+ */
+final class VectorScanner {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    private VectorScanner() {
+    }
+
+    static ProgramScanner scan(final ReadableByteChannel channel, final int bufferBytes) throws Exception {
+        final var scanner = new ProgramScanner();
+        final var bytes = new byte[bufferBytes];
+        final var buffer = ByteBuffer.wrap(bytes);
+        int read;
+        while ((read = channel.read(buffer.clear())) >= 0) {
+            feed(scanner, bytes, read);
+        }
+
+        return scanner;
+    }
+
+    static void feed(final ProgramScanner scanner, final byte[] bytes, final int length) {
+        final var lanes = SPECIES.length();
+        var next = finishToken(scanner, bytes, 0, length);
+        var base = 0;
+        for (; base + lanes <= length; base += lanes) {
+            final var block = ByteVector.fromArray(SPECIES, bytes, base);
+            var candidates = block.compare(VectorOperators.EQ, (byte) 'm')
+                .or(block.compare(VectorOperators.EQ, (byte) 'd'))
+                .toLong();
+            while (candidates != 0) {
+                final var position = base + Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                if (position >= next) {
+                    scanner.accept(bytes[position]);
+                    next = finishToken(scanner, bytes, position + 1, length);
+                }
+            }
+        }
+
+        for (var position = Math.max(base, next); position < length; position++) {
+            scanner.accept(bytes[position]);
+        }
+    }
+
+    /**
+     * Feeds bytes from {@code from} until the scanner is idle again, and
+     * returns the first byte it didn't see.
+     */
+    private static int finishToken(
+        final ProgramScanner scanner,
+        final byte[] bytes,
+        final int from,
+        final int length
+    ) {
+        var position = from;
+        while (position < length && scanner.inToken()) {
+            scanner.accept(bytes[position++]);
+        }
+
+        return position;
+    }
+}
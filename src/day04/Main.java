@@ -1,94 +1,89 @@
 package day04;
 
-import java.nio.file.Files;
+import common.ByteCursor;
+
 import java.nio.file.Path;
-import java.util.stream.IntStream;
+import java.util.List;
 
 public class Main {
+    static final WordSearch XMAS = new WordSearch(List.of("XMAS"), "MAS");
+
     public static void main() throws Exception {
         System.out.println("Part 1: " + part1());
         System.out.println("Part 2: " + part2());
     }
 
-    static int part1() throws Exception {
-        final var input = parseInput(Path.of("./src/day04/input.txt"));
-
-        return IntStream.range(0, input.length)
-            .flatMap(row ->
-                IntStream.range(0, input[row].length)
-                    .map(col ->
-                        countXmas(input, row, col)
-                    )
-            )
-            .sum();
+    static long part1() throws Exception {
+        return part1(parseInput(Path.of("./src/day04/input.txt")));
+    }
+
+    static long part1(final Grid grid) {
+        return XMAS.search(grid).words()[0];
+    }
+
+    /**
+     * Part 1 over a grid file scanned in parallel tiles of
+     * {@code tileRows} rows, without loading it all.
+     */
+    static long part1(final Path input, final int tileRows) throws Exception {
+        return TiledSearch.search(input, XMAS, tileRows).words()[0];
     }
 
-    private static int part2() throws Exception {
-        final var input = parseInput(Path.of("./src/day04/input.txt"));
-
-        return IntStream.range(0, input.length)
-            .flatMap(row ->
-                IntStream.range(0, input[row].length)
-                    .map(col ->
-                        countXDashMas(input, row, col)
-                    )
-            )
-            .sum();
+    static long part2() throws Exception {
+        return part2(parseInput(Path.of("./src/day04/input.txt")));
     }
 
-    static int countXmas(final char[][] board, final int row, final int col) {
-        return IntStream.rangeClosed(-1, 1)
-            .flatMap(rowInc ->
-                IntStream.rangeClosed(-1, 1)
-                    .map(colInc ->
-                        isMatch(board, row, rowInc, col, colInc, "XMAS") ? 1 : 0
-                    )
-            )
-            .sum();
+    static long part2(final Grid grid) {
+        return XMAS.search(grid).crosses();
     }
 
-    private static int countXDashMas(final char[][] board, final int row, final int col) {
-        final var downRight = isMatch(board, row, 1, col, 1, "MAS") ||
-            isMatch(board, row, 1, col, 1, "SAM");
-        final var downLeft = isMatch(board, row, 1, col + 2, -1, "MAS") ||
-            isMatch(board, row, 1, col + 2, -1, "SAM");
-        return downRight && downLeft ? 1 : 0;
+    static long part2(final Path input, final int tileRows) throws Exception {
+        return TiledSearch.search(input, XMAS, tileRows).crosses();
     }
 
-    static boolean isMatch(
-        final char[][] board,
-        final int row,
-        final int rowIncrement,
-        final int col,
-        final int colIncrement,
-        final String word
-    ) {
-        if ("".equals(word)) {
-            return true;
+    /**
+     * A row-major grid of letters surrounded by {@code padding} cells of zero
+     * on every side, so that a word running off the edge simply fails to match
+     * instead of needing bounds checks.
+     */
+    record Grid(byte[] cells, int width, int height, int padding) {
+        int stride() {
+            return width + 2 * padding;
         }
 
-        if (row < 0 || row >= board.length || col < 0 || col >= board[row].length) {
-            return false;
+        int index(final int row, final int col) {
+            return (row + padding) * stride() + col + padding;
         }
+    }
+
+    static Grid parseInput(final Path input) throws Exception {
+        return parse(ByteCursor.map(input), XMAS.padding());
+    }
 
-        if (board[row][col] != word.charAt(0)) {
-            return false;
+    static Grid parse(final ByteCursor cursor, final int padding) {
+        final var width = cursor.lineEnd() - cursor.position();
+        final var start = cursor.position();
+        var height = 0;
+        // the grid ends at the first blank line, such as a trailing one
+        while (cursor.hasRemaining() && cursor.lineEnd() > cursor.position()) {
+            height++;
+            cursor.nextLine();
         }
+        cursor.position(start);
 
-        return isMatch(
-            board,
-            row + rowIncrement,
-            rowIncrement,
-            col + colIncrement,
-            colIncrement,
-            word.substring(1)
+        final var grid = new Grid(
+            new byte[(height + 2 * padding) * (width + 2 * padding)],
+            width,
+            height,
+            padding
         );
-    }
+        for (int row = 0; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                grid.cells[grid.index(row, col)] = cursor.get(cursor.position() + col);
+            }
+            cursor.nextLine();
+        }
 
-    static char[][] parseInput(final Path input) throws Exception {
-        return Files.readAllLines(input)
-            .stream()
-            .map(String::toCharArray)
-            .toArray(char[][]::new);
+        return grid;
     }
 }
@@ -0,0 +1,96 @@
+package day04;
+
+import common.ByteCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * Runs a {@link WordSearch} over a memory-mapped grid file in horizontal
+ * tiles on the common fork-join pool.
+ * <p>
+ * Every line has the same length, so a row's offset in the file is just
+ * arithmetic. Each tile owns a band of rows and is loaded together with
+ * {@link WordSearch#padding()} extra rows above and below, enough for any
+ * match that starts in the band to be followed to its end. Only words
+ * starting, and crosses centred, in the owned rows are counted, so a match
+ * that straddles two tiles is counted by exactly one of them. At most one
+ * tile per worker is resident, so the grid itself can be larger than the
+ * heap.
+ */
+final class TiledSearch {
+    private TiledSearch() {
+    }
+
+    static WordSearch.Result search(
+        final Path input,
+        final WordSearch search,
+        final int tileRows
+    ) throws Exception {
+        try (final var channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final var size = channel.size();
+            if (size == 0) {
+                return empty(search);
+            }
+            final var lineBytes = lineBytes(channel);
+            final var rows = (int) ((size + lineBytes - 1) / lineBytes);
+            final var tiles = (rows + tileRows - 1) / tileRows;
+            final var halo = search.padding();
+
+            return IntStream.range(0, tiles)
+                .parallel()
+                .mapToObj(tile -> {
+                    final var from = tile * tileRows;
+                    final var to = Math.min(rows, from + tileRows);
+                    final var loadedFrom = Math.max(0, from - halo);
+                    final var loadedTo = Math.min(rows, to + halo);
+                    try {
+                        final var start = loadedFrom * lineBytes;
+                        final var buffer = channel.map(
+                            FileChannel.MapMode.READ_ONLY,
+                            start,
+                            Math.min(size, loadedTo * lineBytes) - start
+                        );
+                        final var grid = Main.parse(new ByteCursor(buffer), halo);
+                        // blank lines at the end of the file are not rows
+                        return search.search(grid, from - loadedFrom, Math.min(to - loadedFrom, grid.height()));
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .reduce(WordSearch.Result::plus)
+                .orElseGet(() -> empty(search));
+        }
+    }
+
+    private static WordSearch.Result empty(final WordSearch search) {
+        return new WordSearch.Result(new long[search.words()], 0);
+    }
+
+    /**
+     * The length of the first line including its line break, which every
+     * line of the grid shares.
+     */
+    private static long lineBytes(final FileChannel channel) throws IOException {
+        final var buffer = ByteBuffer.allocate(256);
+        var position = 0L;
+        while (true) {
+            buffer.clear();
+            final var read = channel.read(buffer, position);
+            if (read <= 0) {
+                return position;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package day04;
+
+/**
+ * Keeps the counts of a {@link WordSearch} current while single cells of a
+ * grid are edited, without rescanning it.
+ * <p>
+ * A match can only appear or disappear if it covers the edited cell. So an
+ * edit subtracts the matches through that cell, changes it, and adds back the
+ * matches through it again. That means probing each word at each of its
+ * letters in all eight directions, plus the few cross centres within reach,
+ * which costs the same however large the grid is.
+ */
+final class WordIndex {
+    private final WordSearch search;
+    private final Main.Grid grid;
+    private final int[] directions;
+    private final long[] counts;
+    private long crosses;
+
+    /**
+     * Indexes {@code grid}, which is then edited in place through
+     * {@link #set}. It must be padded for {@code search}.
+     */
+    WordIndex(final WordSearch search, final Main.Grid grid) {
+        final var result = search.search(grid);
+        this.search = search;
+        this.grid = grid;
+        this.directions = WordSearch.directions(grid.stride());
+        this.counts = result.words();
+        this.crosses = result.crosses();
+    }
+
+    long count(final int word) {
+        return counts[word];
+    }
+
+    long crosses() {
+        return crosses;
+    }
+
+    void set(final int row, final int col, final byte letter) {
+        if (row < 0 || row >= grid.height() || col < 0 || col >= grid.width()) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + col + ") is outside the grid");
+        }
+
+        final var cells = grid.cells();
+        final var cell = grid.index(row, col);
+        if (cells[cell] == letter) {
+            return;
+        }
+
+        search.countThrough(cells, cell, directions, counts, -1);
+        crosses -= search.crossesThrough(cells, cell, grid.stride());
+        cells[cell] = letter;
+        search.countThrough(cells, cell, directions, counts, 1);
+        crosses += search.crossesThrough(cells, cell, grid.stride());
+    }
+}
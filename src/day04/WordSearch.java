@@ -0,0 +1,171 @@
+package day04;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts several words in all eight directions, plus one X-shaped pattern,
+ * in a single pass over a padded {@link Main.Grid}.
+ * <p>
+ * Each direction is a fixed offset in the flat cell array, so following a
+ * word is just repeated addition, and the padding keeps every probe in
+ * bounds. Words are bucketed by first letter, so a cell only tries the words
+ * it could start. The cross pattern is an odd-length word that must read
+ * forwards or backwards along both diagonals through a shared middle cell,
+ * like the "MAS" crosses of part 2.
+ */
+final class WordSearch {
+    private final byte[][] words;
+    private final byte[] cross;
+    // word indices by first letter
+    private final int[][] startingWith = new int[256][];
+
+    record Result(long[] words, long crosses) {
+        Result plus(final Result other) {
+            final var sum = words.clone();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += other.words[i];
+            }
+
+            return new Result(sum, crosses + other.crosses);
+        }
+    }
+
+    WordSearch(final List<String> words, final String cross) {
+        if (cross.length() % 2 == 0) {
+            throw new IllegalArgumentException("Cross word must have odd length: " + cross);
+        }
+
+        this.words = words.stream()
+            .map(word -> word.getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+        this.cross = cross.getBytes(StandardCharsets.US_ASCII);
+
+        Arrays.fill(startingWith, new int[0]);
+        for (int i = 0; i < this.words.length; i++) {
+            final var first = this.words[i][0] & 0xFF;
+            startingWith[first] = Arrays.copyOf(startingWith[first], startingWith[first].length + 1);
+            startingWith[first][startingWith[first].length - 1] = i;
+        }
+    }
+
+    int words() {
+        return words.length;
+    }
+
+    /**
+     * The border a grid needs so that no probe of this search leaves it.
+     */
+    int padding() {
+        var longest = cross.length / 2 + 1;
+        for (final var word : words) {
+            longest = Math.max(longest, word.length);
+        }
+
+        return longest - 1;
+    }
+
+    Result search(final Main.Grid grid) {
+        return search(grid, 0, grid.height());
+    }
+
+    /**
+     * Counts the words starting, and the crosses centred, in rows
+     * {@code [fromRow, toRow)}.
+     */
+    Result search(final Main.Grid grid, final int fromRow, final int toRow) {
+        if (grid.padding() < padding()) {
+            throw new IllegalArgumentException("Grid padding " + grid.padding() + " is less than " + padding());
+        }
+
+        final var cells = grid.cells();
+        final var directions = directions(grid.stride());
+        final var crossMiddle = cross[cross.length / 2];
+        final var counts = new long[words.length];
+        var crosses = 0L;
+
+        for (int row = fromRow; row < toRow; row++) {
+            final var rowStart = grid.index(row, 0);
+            for (int cell = rowStart; cell < rowStart + grid.width(); cell++) {
+                final var letter = cells[cell];
+                for (final var word : startingWith[letter & 0xFF]) {
+                    for (final var direction : directions) {
+                        if (matches(cells, cell, direction, words[word])) {
+                            counts[word]++;
+                        }
+                    }
+                }
+                if (letter == crossMiddle && isCross(cells, cell, grid.stride())) {
+                    crosses++;
+                }
+            }
+        }
+
+        return new Result(counts, crosses);
+    }
+
+    /**
+     * Adds {@code sign} to the count of each word match that passes through
+     * {@code cell}, at whichever of its letters that is.
+     */
+    void countThrough(final byte[] cells, final int cell, final int[] directions, final long[] counts, final int sign) {
+        for (int word = 0; word < words.length; word++) {
+            for (final var direction : directions) {
+                for (int i = 0; i < words[word].length; i++) {
+                    if (matches(cells, cell - i * direction, direction, words[word])) {
+                        counts[word] += sign;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of crosses that {@code cell} is part of, either as the
+     * middle or on one of the diagonals.
+     */
+    long crossesThrough(final byte[] cells, final int cell, final int stride) {
+        var count = crossAt(cells, cell, stride);
+        for (int i = 1; i <= cross.length / 2; i++) {
+            count += crossAt(cells, cell - i * (stride + 1), stride) +
+                crossAt(cells, cell + i * (stride + 1), stride) +
+                crossAt(cells, cell - i * (stride - 1), stride) +
+                crossAt(cells, cell + i * (stride - 1), stride);
+        }
+
+        return count;
+    }
+
+    private int crossAt(final byte[] cells, final int middle, final int stride) {
+        return cells[middle] == cross[cross.length / 2] && isCross(cells, middle, stride) ? 1 : 0;
+    }
+
+    static int[] directions(final int stride) {
+        return new int[]{
+            -stride - 1, -stride, -stride + 1,
+            -1, 1,
+            stride - 1, stride, stride + 1
+        };
+    }
+
+    boolean isCross(final byte[] cells, final int middle, final int stride) {
+        final var half = cross.length / 2;
+        final var downRight = stride + 1;
+        final var downLeft = stride - 1;
+        return (matches(cells, middle - half * downRight, downRight, cross) ||
+            matches(cells, middle + half * downRight, -downRight, cross)) &&
+            (matches(cells, middle - half * downLeft, downLeft, cross) ||
+                matches(cells, middle + half * downLeft, -downLeft, cross));
+    }
+
+    static boolean matches(final byte[] cells, final int start, final int step, final byte[] word) {
+        for (int i = 0; i < word.length; i++) {
+            if (cells[start + i * step] != word[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -1,91 +1,77 @@
 package day05;
 
-import java.nio.file.Files;
+import common.ByteCursor;
+
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
 public class Main {
-    public static void main() throws Exception {
-        System.out.println("Part 1: " + part1());
-        System.out.println("Part 2: " + part2());
+    private static final int DEFAULT_CACHE_SIZE = 1 << 16;
+
+    /**
+     * Prints both parts, or with {@code serve <port> [cacheSize]} runs
+     * {@link #serve} instead.
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Part 1: " + part1());
+            System.out.println("Part 2: " + part2());
+            return;
+        }
+
+        if (!args[0].equals("serve") || args.length < 2 || args.length > 3) {
+            throw new IllegalArgumentException("Usage: day05.Main [serve <port> [cacheSize]]");
+        }
+        serve(
+            Integer.parseInt(args[1]),
+            args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_CACHE_SIZE
+        );
     }
 
     static int part1() throws Exception {
-        final var input = parseInput(Path.of("./src/day05/input.txt"));
+        return part1(parseInput(Path.of("./src/day05/input.txt")));
+    }
 
+    static int part1(final Input input) {
+        final var rules = OrderingRules.compile(input.pageOrderingRules);
         return input.updates
-            .stream()
-            .filter(update -> isValid(input.pageOrderingRules, update))
-            .mapToInt(Update::middlePage)
+            .parallelStream()
+            .map(Update::pages)
+            .filter(rules::isValid)
+            .mapToInt(Main::middlePage)
             .sum();
     }
 
     static int part2() throws Exception {
-        final var input = parseInput(Path.of("./src/day05/input.txt"));
+        return part2(parseInput(Path.of("./src/day05/input.txt")));
+    }
 
+    static int part2(final Input input) {
+        final var rules = OrderingRules.compile(input.pageOrderingRules);
         return input.updates
-            .stream()
-            .filter(update -> !isValid(input.pageOrderingRules, update))
-            .map(update -> makeValid(input.pageOrderingRules, update))
-            .mapToInt(Update::middlePage)
+            .parallelStream()
+            .map(Update::pages)
+            .filter(pages -> !rules.isValid(pages))
+            .map(rules::repaired)
+            .mapToInt(Main::middlePage)
             .sum();
     }
 
-    private static boolean isValid(
-        final List<PageOrderingRule> pageOrderingRules,
-        final Update update
-    ) {
-        return IntStream.range(0, update.pageNumbers.size())
-            .allMatch(position -> {
-                final var left = update.pageNumbers.subList(0, position);
-                final var right = update.pageNumbers.subList(
-                    Math.min(position + 1, update.pageNumbers.size()),
-                    update.pageNumbers.size()
-                );
-
-                return pageOrderingRules
-                    .stream()
-                    .noneMatch(pageOrderingRule -> {
-                        if (update.pageNumbers.get(position) == pageOrderingRule.pageNumber) {
-                            return left.contains(pageOrderingRule.mustComeBefore);
-                        } else if (update.pageNumbers.get(position) == pageOrderingRule.mustComeBefore) {
-                            return right.contains(pageOrderingRule.pageNumber);
-                        } else {
-                            return false;
-                        }
-                    });
-            });
-    }
-
-    private static Update makeValid(
-        final List<PageOrderingRule> pageOrderingRules,
-        final Update update
-    ) {
-        var result = new Update(List.of());
-        for (Integer page : update.pageNumbers) {
-            result = allPossibleUpdatesWithNewPage(result, page)
-                .filter(newUpdate -> isValid(pageOrderingRules, newUpdate))
-                .findFirst()
-                .get();
+    /**
+     * Keeps the input's rules resident and validates updates sent to
+     * {@code port} on the loopback interface, until the process exits.
+     */
+    static void serve(final int port, final int cacheSize) throws Exception {
+        final var input = parseInput(Path.of("./src/day05/input.txt"));
+        try (final var service = new RuleService(input.pageOrderingRules, cacheSize)) {
+            service.listen(port);
         }
-
-        return result;
     }
 
-    private static Stream<Update> allPossibleUpdatesWithNewPage(
-        final Update update,
-        final int page
-    ) {
-        return IntStream.rangeClosed(0, update.pageNumbers.size())
-            .mapToObj(i -> {
-                final var newPages = new ArrayList<>(update.pageNumbers);
-                newPages.add(i, page);
-                return new Update(newPages);
-            });
+    static int middlePage(final int[] pages) {
+        return pages[pages.length / 2];
     }
 
     record Input(
@@ -100,36 +86,52 @@ public class Main {
     ) {
     }
 
-    record Update(List<Integer> pageNumbers) {
+    /**
+     * An update's page numbers in order. Compared by content, so it can key
+     * a cache.
+     */
+    record Update(int[] pages) {
         public int middlePage() {
-            return pageNumbers.get(pageNumbers.size() / 2);
+            return Main.middlePage(pages);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Update update && Arrays.equals(pages, update.pages);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(pages);
+        }
+
+        @Override
+        public String toString() {
+            return "Update" + Arrays.toString(pages);
         }
     }
 
     static Input parseInput(final Path input) throws Exception {
-        final var lines = Files.readAllLines(input);
-        final var sectionDivider = lines.indexOf("");
-
-        final var pageOrderingRules = lines.subList(0, sectionDivider)
-            .stream()
-            .map(line -> {
-                final var pair = Arrays.stream(line.split("\\|"))
-                    .map(Integer::parseInt)
-                    .toList();
-                return new PageOrderingRule(pair.get(0), pair.get(1));
-            })
-            .toList();
-
-        final var updates = lines.subList(sectionDivider + 1, lines.size())
-            .stream()
-            .map(line ->
-                new Update(
-                    Arrays.stream(line.split(","))
-                        .map(Integer::parseInt)
-                        .toList()
-                )
-            )
-            .toList();
+        final var cursor = ByteCursor.map(input);
+
+        final var pageOrderingRules = new ArrayList<PageOrderingRule>();
+        while (!cursor.atLineEnd()) {
+            pageOrderingRules.add(new PageOrderingRule(cursor.nextInt(), cursor.nextInt()));
+            cursor.nextLine();
+        }
+
+        final var updates = new ArrayList<Update>();
+        var pages = new int[32];
+        while (cursor.hasNextNumber()) {
+            var size = 0;
+            while (cursor.hasNextNumberOnLine()) {
+                if (size == pages.length) {
+                    pages = Arrays.copyOf(pages, size * 2);
+                }
+                pages[size++] = cursor.nextInt();
+            }
+            updates.add(new Update(Arrays.copyOf(pages, size)));
+        }
 
         return new Input(pageOrderingRules, updates);
     }
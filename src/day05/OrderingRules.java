@@ -0,0 +1,219 @@
+package day05;
+
+import java.util.List;
+
+/**
+ * Page ordering rules compiled into adjacency bit matrices, so that the
+ * pages an update must place before or after a page are one row each.
+ * <p>
+ * Row {@code p} of {@code successors} has bit {@code q} set for each rule
+ * {@code p|q}, and {@code predecessors} is its transpose. Pages are used as
+ * indices directly, so the matrices are sized by the largest page in any
+ * rule; pages beyond it have no rules at all. An update's pages are a bitset
+ * of the same width, so checking a page against the rest of the update is an
+ * AND of two rows rather than a scan of the rules.
+ * <p>
+ * Rules can be added and removed after compiling, growing the matrices when
+ * a new page is larger than any seen so far. An instance that is never
+ * changed can be shared by any number of threads; one that is must not be
+ * read while it changes.
+ */
+final class OrderingRules {
+    private int size;
+    private int words;
+    private long[] successors;
+    private long[] predecessors;
+
+    private OrderingRules(final int size) {
+        this.size = size;
+        this.words = (size + Long.SIZE - 1) / Long.SIZE;
+        this.successors = new long[size * words];
+        this.predecessors = new long[size * words];
+    }
+
+    static OrderingRules compile(final List<Main.PageOrderingRule> rules) {
+        final var size = rules.stream()
+            .mapToInt(rule -> Math.max(rule.pageNumber(), rule.mustComeBefore()))
+            .max()
+            .orElse(-1) + 1;
+
+        final var compiled = new OrderingRules(size);
+        for (final var rule : rules) {
+            compiled.set(compiled.successors, rule.pageNumber(), rule.mustComeBefore());
+            compiled.set(compiled.predecessors, rule.mustComeBefore(), rule.pageNumber());
+        }
+
+        return compiled;
+    }
+
+    private void set(final long[] matrix, final int row, final int column) {
+        matrix[row * words + column / Long.SIZE] |= 1L << column;
+    }
+
+    private void clear(final long[] matrix, final int row, final int column) {
+        matrix[row * words + column / Long.SIZE] &= ~(1L << column);
+    }
+
+    /**
+     * Whether there is a rule {@code page|later}.
+     */
+    boolean contains(final int page, final int later) {
+        if (page >= size || later >= size) {
+            return false;
+        }
+
+        return (successors[page * words + later / Long.SIZE] & 1L << later) != 0;
+    }
+
+    /**
+     * Adds the rule {@code page|later}, returning false if it was already
+     * there.
+     * <p>
+     * A rule that contradicts an existing one, {@code later|page}, is
+     * rejected: no update holding both pages could then be ordered. Longer
+     * cycles are allowed, because only the rules between the pages of a
+     * single update need to be acyclic, and real rule sets rely on that.
+     * {@link #repaired} reports those when an update hits one.
+     *
+     * @throws IllegalArgumentException if the rule contradicts an existing one
+     */
+    boolean add(final int page, final int later) {
+        if (page == later || contains(later, page)) {
+            throw new IllegalArgumentException("Rule " + page + "|" + later + " contradicts an existing rule");
+        }
+        if (contains(page, later)) {
+            return false;
+        }
+
+        grow(Math.max(page, later) + 1);
+        set(successors, page, later);
+        set(predecessors, later, page);
+        return true;
+    }
+
+    /**
+     * Removes the rule {@code page|later}, returning false if there was none.
+     */
+    boolean remove(final int page, final int later) {
+        if (!contains(page, later)) {
+            return false;
+        }
+
+        clear(successors, page, later);
+        clear(predecessors, later, page);
+        return true;
+    }
+
+    private void grow(final int minSize) {
+        if (minSize <= size) {
+            return;
+        }
+
+        final var newSize = Math.max(minSize, 2 * size);
+        final var newWords = (newSize + Long.SIZE - 1) / Long.SIZE;
+        final var newSuccessors = new long[newSize * newWords];
+        final var newPredecessors = new long[newSize * newWords];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(successors, row * words, newSuccessors, row * newWords, words);
+            System.arraycopy(predecessors, row * words, newPredecessors, row * newWords, words);
+        }
+
+        size = newSize;
+        words = newWords;
+        successors = newSuccessors;
+        predecessors = newPredecessors;
+    }
+
+    /**
+     * Whether no page of the update is required before one that precedes it,
+     * checked in one pass from the back against the set of later pages.
+     */
+    boolean isValid(final int[] pages) {
+        final var later = new long[words];
+        for (int i = pages.length - 1; i >= 0; i--) {
+            final var page = pages[i];
+            if (page >= size) {
+                continue;
+            }
+            if (count(predecessors, page, later) > 0) {
+                return false;
+            }
+            later[page / Long.SIZE] |= 1L << page;
+        }
+
+        return true;
+    }
+
+    /**
+     * Reorders the update so that it obeys every rule between its pages, by
+     * a topological sort restricted to those pages. Among the pages free to
+     * go next, the one that came first in the update is taken, so pages that
+     * are unrelated by the rules keep their relative order.
+     *
+     * @throws IllegalArgumentException if the rules order its pages in a cycle
+     */
+    int[] repaired(final int[] pages) {
+        final var remaining = new long[words];
+        final var indexOf = new int[size];
+        for (int i = 0; i < pages.length; i++) {
+            if (pages[i] < size) {
+                remaining[pages[i] / Long.SIZE] |= 1L << pages[i];
+                indexOf[pages[i]] = i;
+            }
+        }
+
+        // the update's pages that have no predecessors left, by position
+        final var ready = new long[(pages.length + Long.SIZE - 1) / Long.SIZE];
+        final var waitingFor = new int[pages.length];
+        for (int i = 0; i < pages.length; i++) {
+            waitingFor[i] = pages[i] < size ? count(predecessors, pages[i], remaining) : 0;
+            if (waitingFor[i] == 0) {
+                ready[i / Long.SIZE] |= 1L << i;
+            }
+        }
+
+        final var result = new int[pages.length];
+        var word = 0;
+        for (int position = 0; position < pages.length; position++) {
+            while (word < ready.length && ready[word] == 0) {
+                word++;
+            }
+            if (word == ready.length) {
+                throw new IllegalArgumentException("Rules order the pages of the update in a cycle");
+            }
+
+            final var next = word * Long.SIZE + Long.numberOfTrailingZeros(ready[word]);
+            ready[word] &= ready[word] - 1;
+            final var page = pages[next];
+            result[position] = page;
+            if (page >= size) {
+                continue;
+            }
+
+            remaining[page / Long.SIZE] &= ~(1L << page);
+            for (int w = 0; w < words; w++) {
+                var freed = successors[page * words + w] & remaining[w];
+                while (freed != 0) {
+                    final var index = indexOf[w * Long.SIZE + Long.numberOfTrailingZeros(freed)];
+                    if (--waitingFor[index] == 0) {
+                        ready[index / Long.SIZE] |= 1L << index;
+                        // an earlier position may have just become ready
+                        word = Math.min(word, index / Long.SIZE);
+                    }
+                    freed &= freed - 1;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private int count(final long[] matrix, final int row, final long[] set) {
+        var count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(matrix[row * words + w] & set[w]);
+        }
+
+        return count;
+    }
+}
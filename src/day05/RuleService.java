@@ -0,0 +1,212 @@
+package day05;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates a stream of updates against resident, compiled rules that can
+ * change while it runs.
+ * <p>
+ * Verdicts are cached in a bounded LRU keyed by the update's page sequence.
+ * A rule {@code p|q} can only change the verdict of an update holding both
+ * {@code p} and {@code q}, so adding or removing it evicts just those
+ * entries, found through an index of cached updates by page.
+ * <p>
+ * Clients talk to it one line at a time over a loopback socket:
+ * <ul>
+ *     <li>{@code 47|53} adds a rule and {@code -47|53} removes it, answered
+ *     with {@code ok}</li>
+ *     <li>{@code 75,47,61,53,29} checks an update, answered with
+ *     {@code valid 61} or {@code repaired 47} and the middle page of the
+ *     update as ordered</li>
+ * </ul>
+ * Anything that fails is answered with {@code error} and a message, and the
+ * connection stays open. An update listing a page twice has no order to
+ * check, so it is answered with an error rather than a verdict.
+ */
+final class RuleService implements Closeable {
+    private final OrderingRules rules;
+    private final Map<Main.Update, Verdict> cache;
+    private final Map<Integer, Set<Main.Update>> cachedByPage = new HashMap<>();
+    private volatile ServerSocket server;
+    private volatile boolean closed;
+
+    record Verdict(boolean valid, int middlePage) {
+    }
+
+    RuleService(final List<Main.PageOrderingRule> rules, final int cacheSize) {
+        this.rules = OrderingRules.compile(rules);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Main.Update, Verdict> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                unindex(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException if the update lists a page more than once
+     */
+    synchronized Verdict check(final Main.Update update) {
+        final var cached = cache.get(update);
+        if (cached != null) {
+            return cached;
+        }
+
+        final var pages = update.pages();
+        if (Arrays.stream(pages).distinct().count() != pages.length) {
+            throw new IllegalArgumentException("duplicate page in " + Arrays.toString(pages));
+        }
+        final var verdict = rules.isValid(pages)
+            ? new Verdict(true, Main.middlePage(pages))
+            : new Verdict(false, Main.middlePage(rules.repaired(pages)));
+        for (final var page : update.pages()) {
+            cachedByPage.computeIfAbsent(page, _ -> new HashSet<>()).add(update);
+        }
+        cache.put(update, verdict);
+
+        return verdict;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the rule contradicts an existing one
+     */
+    synchronized void addRule(final Main.PageOrderingRule rule) {
+        if (rules.add(rule.pageNumber(), rule.mustComeBefore())) {
+            invalidate(rule);
+        }
+    }
+
+    synchronized void removeRule(final Main.PageOrderingRule rule) {
+        if (rules.remove(rule.pageNumber(), rule.mustComeBefore())) {
+            invalidate(rule);
+        }
+    }
+
+    synchronized int cached() {
+        return cache.size();
+    }
+
+    private void invalidate(final Main.PageOrderingRule rule) {
+        final var withPage = cachedByPage.getOrDefault(rule.pageNumber(), Set.of());
+        final var withLater = cachedByPage.getOrDefault(rule.mustComeBefore(), Set.of());
+        final var smaller = withPage.size() <= withLater.size() ? withPage : withLater;
+        final var larger = smaller == withPage ? withLater : withPage;
+
+        final var affected = smaller.stream()
+            .filter(larger::contains)
+            .toList();
+        for (final var update : affected) {
+            cache.remove(update);
+            unindex(update);
+        }
+    }
+
+    private void unindex(final Main.Update update) {
+        for (final var page : update.pages()) {
+            final var updates = cachedByPage.get(page);
+            if (updates != null && updates.remove(update) && updates.isEmpty()) {
+                cachedByPage.remove(page);
+            }
+        }
+    }
+
+    /**
+     * Answers one request line.
+     */
+    String handle(final String line) {
+        try {
+            if (line.contains("|")) {
+                final var remove = line.startsWith("-");
+                final var parts = line.substring(remove ? 1 : 0).split("\\|");
+                final var rule = new Main.PageOrderingRule(
+                    Integer.parseInt(parts[0].trim()),
+                    Integer.parseInt(parts[1].trim())
+                );
+                if (remove) {
+                    removeRule(rule);
+                } else {
+                    addRule(rule);
+                }
+                return "ok";
+            }
+
+            final var pages = Arrays.stream(line.split(","))
+                .mapToInt(page -> Integer.parseInt(page.trim()))
+                .toArray();
+            final var verdict = check(new Main.Update(pages));
+            return (verdict.valid() ? "valid " : "repaired ") + verdict.middlePage();
+        } catch (final RuntimeException e) {
+            return "error " + e.getMessage();
+        }
+    }
+
+    /**
+     * Accepts loopback connections on {@code port} until {@link #close()} is
+     * called, serving each one on its own virtual thread.
+     */
+    void listen(final int port) throws IOException {
+        try (final var server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            this.server = server;
+            while (!closed) {
+                final Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (final SocketException e) {
+                    if (server.isClosed()) {
+                        return;
+                    }
+                    throw e;
+                }
+                Thread.ofVirtual().start(() -> serve(socket));
+            }
+        }
+    }
+
+    /**
+     * Stops {@link #listen(int)}; connections already accepted keep running.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        final var server = this.server;
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (socket;
+             final var in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             final var out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    out.println(handle(line));
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package day06;
+
+import java.util.Arrays;
+
+/**
+ * Walks the guard over a flat byte grid with all of its state in ints.
+ * <p>
+ * The map is surrounded by a ring of {@link #OUTSIDE} cells, so leaving it is
+ * just another cell lookup. A guard is packed as {@code cell * 4 + direction},
+ * with directions in {@link Main.Direction} order, and moving is adding the
+ * direction's offset to the cell. Loop detection marks each packed guard in a
+ * bitset the caller passes in, so one bitset can be reused for every walk.
+ * The grid is never written after construction, so walks on different
+ * threads can share it, each with its own bitset.
+ */
+final class GuardSimulator {
+    static final byte EMPTY = 0;
+    static final byte OBSTACLE = 1;
+    static final byte OUTSIDE = 2;
+
+    private final byte[] cells;
+    private final int stride;
+    private final int[] offsets;
+    private final int start;
+
+    private GuardSimulator(final byte[] cells, final int stride, final int start) {
+        this.cells = cells;
+        this.stride = stride;
+        this.offsets = new int[]{-stride, 1, stride, -1};
+        this.start = start;
+    }
+
+    static GuardSimulator of(final Main.State state) {
+        final var lines = state.map().lines();
+        final var width = lines.getFirst().length();
+        final var stride = width + 2;
+        final var cells = new byte[(lines.size() + 2) * stride];
+        Arrays.fill(cells, OUTSIDE);
+        for (int row = 0; row < lines.size(); row++) {
+            for (int col = 0; col < width; col++) {
+                cells[(row + 1) * stride + col + 1] = lines.get(row).charAt(col) == '#' ? OBSTACLE : EMPTY;
+            }
+        }
+
+        final var guard = state.guard();
+        final var start = ((guard.row() + 1) * stride + guard.col() + 1) * 4 + guard.direction().ordinal();
+        return new GuardSimulator(cells, stride, start);
+    }
+
+    int start() {
+        return start;
+    }
+
+    int row(final int cell) {
+        return cell / stride - 1;
+    }
+
+    int col(final int cell) {
+        return cell % stride - 1;
+    }
+
+    boolean isObstacle(final int cell) {
+        return cells[cell] == OBSTACLE;
+    }
+
+    byte at(final int cell) {
+        return cells[cell];
+    }
+
+    int cellCount() {
+        return cells.length;
+    }
+
+    int offset(final int direction) {
+        return offsets[direction];
+    }
+
+    /**
+     * A bitset large enough to mark every packed guard.
+     */
+    long[] newVisited() {
+        return new long[(cells.length * 4 + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * The guard after one step from {@code guard}: a turn if the cell ahead
+     * is blocked, by the map or by {@code obstacle}, otherwise a move into it.
+     */
+    int next(final int guard, final int obstacle) {
+        final var direction = guard & 3;
+        final var ahead = (guard >> 2) + offsets[direction];
+        if (cells[ahead] == OBSTACLE || ahead == obstacle) {
+            return guard & ~3 | (direction + 1) & 3;
+        }
+
+        return ahead << 2 | direction;
+    }
+
+    boolean isOutside(final int guard) {
+        return cells[guard >> 2] == OUTSIDE;
+    }
+
+    /**
+     * The distinct cells of a walk in the order the guard first reaches them,
+     * each with the guard just before it stepped in. The first cell is where
+     * the guard starts, entered from nowhere, so its entry is the start.
+     */
+    record Walk(int[] cells, int[] entries) {
+    }
+
+    /**
+     * @throws IllegalStateException if the guard never leaves
+     */
+    Walk walk() {
+        final var seen = new boolean[cells.length];
+        final var visited = newVisited();
+        final var path = new int[cells.length];
+        final var entries = new int[cells.length];
+        var size = 0;
+        var previous = start;
+        var guard = start;
+        while (!isOutside(guard)) {
+            if (mark(visited, guard)) {
+                throw new IllegalStateException("The guard never leaves the map");
+            }
+            if (!seen[guard >> 2]) {
+                seen[guard >> 2] = true;
+                path[size] = guard >> 2;
+                entries[size++] = previous;
+            }
+            previous = guard;
+            guard = next(guard, -1);
+        }
+
+        return new Walk(Arrays.copyOf(path, size), Arrays.copyOf(entries, size));
+    }
+
+    /**
+     * Whether the guard walks in a loop once an obstacle is added at
+     * {@code obstacle}. {@code visited} is cleared first and left dirty.
+     */
+    boolean loops(final int obstacle, final long[] visited) {
+        Arrays.fill(visited, 0);
+        return loops(start, obstacle, visited);
+    }
+
+    /**
+     * Whether the guard, starting as {@code guard}, walks in a loop once an
+     * obstacle is added at {@code obstacle}, given the guards already marked
+     * in {@code visited}.
+     */
+    boolean loops(int guard, final int obstacle, final long[] visited) {
+        while (!isOutside(guard)) {
+            if (mark(visited, guard)) {
+                return true;
+            }
+            guard = next(guard, obstacle);
+        }
+
+        return false;
+    }
+
+    /**
+     * Marks {@code guard} as visited, returning whether it already was.
+     */
+    private static boolean mark(final long[] visited, final int guard) {
+        final var bit = 1L << guard;
+        final var word = guard >>> 6;
+        if ((visited[word] & bit) != 0) {
+            return true;
+        }
+        visited[word] |= bit;
+        return false;
+    }
+}
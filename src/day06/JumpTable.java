@@ -0,0 +1,98 @@
+package day06;
+
+/**
+ * For every cell and direction, where a guard heading that way stops: the
+ * cell in front of the next obstacle, or the first cell outside the map.
+ * <p>
+ * With the table a walk costs one lookup per turn instead of one per step.
+ * An extra obstacle can only shorten jumps along its own row and column, so
+ * rather than patching those entries, each jump checks whether the obstacle
+ * lies between its start and its stop, and if so stops in front of it. The
+ * table itself is never written after it is built and can be shared between
+ * threads. Since the guard's state only changes at turns, loops are detected
+ * by marking the turn points alone.
+ */
+final class JumpTable {
+    private final GuardSimulator simulator;
+    private final int stride;
+    // indexed like a packed guard, cell * 4 + direction
+    private final int[] stops;
+
+    private JumpTable(final GuardSimulator simulator, final int[] stops) {
+        this.simulator = simulator;
+        this.stride = simulator.offset(2);
+        this.stops = stops;
+    }
+
+    static JumpTable of(final GuardSimulator simulator) {
+        final var cellCount = simulator.cellCount();
+        final var stops = new int[cellCount * 4];
+        for (int direction = 0; direction < 4; direction++) {
+            final var offset = simulator.offset(direction);
+            // visit each cell after the one ahead of it
+            final var first = offset < 0 ? 0 : cellCount - 1;
+            final var step = offset < 0 ? 1 : -1;
+            for (int cell = first; cell >= 0 && cell < cellCount; cell += step) {
+                final var ahead = cell + offset;
+                if (ahead < 0 || ahead >= cellCount) {
+                    continue;
+                }
+                stops[cell * 4 + direction] = switch (simulator.at(ahead)) {
+                    case GuardSimulator.OBSTACLE -> cell;
+                    case GuardSimulator.OUTSIDE -> ahead;
+                    default -> stops[ahead * 4 + direction];
+                };
+            }
+        }
+
+        return new JumpTable(simulator, stops);
+    }
+
+    /**
+     * Where {@code guard} stops once an obstacle is added at
+     * {@code obstacle}.
+     */
+    int stop(final int guard, final int obstacle) {
+        final var cell = guard >> 2;
+        final var direction = guard & 3;
+        final var stop = stops[guard];
+        final var onLine = (direction & 1) == 1
+            ? obstacle / stride == cell / stride
+            : obstacle % stride == cell % stride;
+        if (!onLine) {
+            return stop;
+        }
+
+        // how many steps ahead of the guard the obstacle and the stop are
+        final var offset = simulator.offset(direction);
+        final var toObstacle = (obstacle - cell) / offset;
+        return toObstacle > 0 && toObstacle <= (stop - cell) / offset ? obstacle - offset : stop;
+    }
+
+    /**
+     * Whether the guard walks in a loop once an obstacle is added at
+     * {@code obstacle}. {@code visits} is cleared first.
+     */
+    boolean loops(final int obstacle, final Visits visits) {
+        return loops(simulator.start(), obstacle, visits);
+    }
+
+    /**
+     * Whether the guard, starting as {@code guard}, walks in a loop once an
+     * obstacle is added at {@code obstacle}. {@code visits} is cleared first.
+     */
+    boolean loops(int guard, final int obstacle, final Visits visits) {
+        visits.clear();
+        while (true) {
+            final var stop = stop(guard, obstacle);
+            if (simulator.at(stop) == GuardSimulator.OUTSIDE) {
+                return false;
+            }
+            final var direction = guard & 3;
+            if (visits.mark(stop << 2 | direction)) {
+                return true;
+            }
+            guard = stop << 2 | (direction + 1) & 3;
+        }
+    }
+}
@@ -2,10 +2,9 @@ package day06;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static day06.Main.Direction.DOWN;
@@ -20,96 +19,81 @@ public class Main {
     }
 
     static long part1() throws Exception {
-        final var initialState = parseInput(Path.of("./src/day06/input.txt"));
+        return part1(parseInput(Path.of("./src/day06/input.txt")));
+    }
+
+    static long part1(final State initialState) {
         return getAllVisited(initialState)
             .count();
     }
 
     static long part2() throws Exception {
-        final var initialState = parseInput(Path.of("./src/day06/input.txt"));
+        return part2(parseInput(Path.of("./src/day06/input.txt")));
+    }
 
-        final var invalidChars = Set.of('#', '^', '>', 'v', '<');
+    static long part2(final State initialState) {
+        final var simulator = GuardSimulator.of(initialState);
+        final var startCell = simulator.start() >> 2;
+        final var scratch = ThreadLocal.withInitial(simulator::newVisited);
 
-        return getAllVisited(initialState)
-            .filter(position -> !invalidChars.contains(initialState.map.at(position)))
+        return Arrays.stream(simulator.walk().cells())
+            .filter(cell -> cell != startCell && !simulator.isObstacle(cell))
             .parallel()
-            .map(position -> doesObstaclePositionLoop(initialState, position))
-            .filter(Boolean::booleanValue)
+            .filter(cell -> simulator.loops(cell, scratch.get()))
             .count();
     }
 
-    static Stream<Position> getAllVisited(final State state) {
-        var currentState = state;
-        while (currentState.map.isOnBoard(currentState.guard)) {
-            currentState = nextState(currentState);
-        }
-
-        return currentState.visited
-            .stream()
-            .map(position -> new Position(position.row, position.col))
-            .distinct();
+    /**
+     * How part 2 walks each candidate: {@code STEP} one cell at a time,
+     * {@code JUMP} from turn to turn with a {@link JumpTable}, and
+     * {@code RESUME} like {@code JUMP} but starting from where the original
+     * walk was just before it first reached the candidate. The path up to
+     * there can't touch the new obstacle, so it is never walked again.
+     */
+    enum Engine {
+        STEP, JUMP, RESUME
     }
 
-    static boolean doesObstaclePositionLoop(
-        final State state,
-        final Position obstaclePosition
-    ) {
-        var stateWithObstacle = new State(
-            state.map,
-            state.guard,
-            Set.of(),
-            Optional.of(obstaclePosition)
-        );
-
-        while (true) {
-            if (!stateWithObstacle.map.isOnBoard(stateWithObstacle.guard)) {
-                // not loop
-                return false;
-            } else if (stateWithObstacle.visited.contains(stateWithObstacle.guard)) {
-                // loop
-                return true;
-            } else {
-                // continue
-                stateWithObstacle = nextState(stateWithObstacle);
+    static long part2(final State initialState, final Engine engine) {
+        return switch (engine) {
+            case STEP -> part2(initialState);
+            case JUMP -> {
+                final var simulator = GuardSimulator.of(initialState);
+                final var startCell = simulator.start() >> 2;
+                final var table = JumpTable.of(simulator);
+                final var visits = ThreadLocal.withInitial(() -> new Visits(simulator.cellCount() * 4));
+
+                yield Arrays.stream(simulator.walk().cells())
+                    .filter(cell -> cell != startCell && !simulator.isObstacle(cell))
+                    .parallel()
+                    .filter(cell -> table.loops(cell, visits.get()))
+                    .count();
+            }
+            case RESUME -> {
+                final var simulator = GuardSimulator.of(initialState);
+                final var table = JumpTable.of(simulator);
+                final var walk = simulator.walk();
+                final var visits = ThreadLocal.withInitial(() -> new Visits(simulator.cellCount() * 4));
+
+                // the first cell is the guard's own
+                yield IntStream.range(1, walk.cells().length)
+                    .parallel()
+                    .filter(i -> table.loops(walk.entries()[i], walk.cells()[i], visits.get()))
+                    .count();
             }
-        }
-    }
-
-    static State nextState(final State currentState) {
-        final var map = currentState.map;
-        final var guard = currentState.guard;
-        final var visited = currentState.visited;
 
-        final var newPosition = switch (guard.direction) {
-            case UP -> new PositionWithDirection(guard.row - 1, guard.col, UP);
-            case RIGHT -> new PositionWithDirection(guard.row, guard.col + 1, RIGHT);
-            case DOWN -> new PositionWithDirection(guard.row + 1, guard.col, DOWN);
-            case LEFT -> new PositionWithDirection(guard.row, guard.col - 1, LEFT);
         };
+    }
 
-        if (map.isOnBoard(newPosition)) {
-            final var isObstacle = currentState.obstacle
-                .map(position -> position.row == newPosition.row && position.col == newPosition.col)
-                .orElse(false);
-            if (map.at(newPosition) == '#' || isObstacle) {
-                return new State(map, guard.turn(), visited, currentState.obstacle);
-            }
-        }
-
-        return new State(
-            map,
-            newPosition,
-            Stream.concat(visited.stream(), Stream.of(guard))
-                .collect(Collectors.toSet()),
-            currentState.obstacle
-        );
+    static Stream<Position> getAllVisited(final State state) {
+        final var simulator = GuardSimulator.of(state);
+        return Arrays.stream(simulator.walk().cells())
+            .mapToObj(cell -> new Position(simulator.row(cell), simulator.col(cell)));
     }
 
     record State(
         Map map,
-        PositionWithDirection guard,
-        Set<PositionWithDirection> visited,
-        Optional<Position> obstacle
+        PositionWithDirection guard
     ) {
     }
 
@@ -124,18 +108,6 @@ public class Main {
         int col,
         Direction direction
     ) {
-        PositionWithDirection turn() {
-            return new PositionWithDirection(
-                row,
-                col,
-                switch (direction) {
-                    case UP -> RIGHT;
-                    case RIGHT -> DOWN;
-                    case DOWN -> LEFT;
-                    case LEFT -> UP;
-                }
-            );
-        }
     }
 
     enum Direction {
@@ -143,18 +115,6 @@ public class Main {
     }
 
     record Map(List<String> lines) {
-        boolean isOnBoard(final PositionWithDirection position) {
-            return position.row >= 0 && position.row < lines.size() &&
-                position.col >= 0 && position.col < lines.getFirst().length();
-        }
-
-        char at(final Position position) {
-            return lines.get(position.row).charAt(position.col);
-        }
-
-        char at(final PositionWithDirection position) {
-            return lines.get(position.row).charAt(position.col);
-        }
     }
 
     static PositionWithDirection findGuard(final Map map) {
@@ -185,9 +145,7 @@ public class Main {
         final var map = new Map(lines);
         return new State(
             map,
-            findGuard(map),
-            Set.of(),
-            Optional.empty()
+            findGuard(map)
         );
     }
 }
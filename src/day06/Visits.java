@@ -0,0 +1,38 @@
+package day06;
+
+import java.util.Arrays;
+
+/**
+ * A set of packed guards that is emptied in O(1) by moving to a new epoch.
+ * <p>
+ * Each guard is stamped with the epoch it was added in, so nothing needs to
+ * be wiped between walks. Only when the epoch counter wraps around are the
+ * stamps reset. One instance belongs to one worker, which reuses it for every
+ * walk it makes.
+ */
+final class Visits {
+    private final int[] stamps;
+    private int epoch = 1;
+
+    Visits(final int size) {
+        this.stamps = new int[size];
+    }
+
+    void clear() {
+        if (++epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Adds {@code guard}, returning whether it was already there.
+     */
+    boolean mark(final int guard) {
+        if (stamps[guard] == epoch) {
+            return true;
+        }
+        stamps[guard] = epoch;
+        return false;
+    }
+}
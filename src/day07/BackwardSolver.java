@@ -0,0 +1,60 @@
+package day07;
+
+import java.util.List;
+
+/**
+ * Decides whether some choice of operators makes an equation's operands,
+ * evaluated left to right, equal its test value, by working from the right.
+ * <p>
+ * The last operator applied is the one before the last operand, so each
+ * operator is undone against that operand to get the value the rest of the
+ * equation must reach. Most operators can only be undone for some values: a
+ * product must divide evenly, a concatenation must end in the operand's
+ * digits, and nothing undoes to below zero. Those branches are dropped at
+ * once, so only a sliver of the combinations is ever visited.
+ */
+final class BackwardSolver {
+    private BackwardSolver() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if an operand isn't positive, since
+     * multiplying by zero can't be undone
+     */
+    static boolean isSolvable(
+        final long testValue,
+        final long[] operands,
+        final List<? extends ReversibleOperator> operators
+    ) {
+        for (final var operand : operands) {
+            if (operand <= 0) {
+                throw new IllegalArgumentException("Operands must be positive: " + operand);
+            }
+        }
+        if (operands.length == 0) {
+            return testValue == 0;
+        }
+
+        return isSolvable(testValue, operands, operands.length - 1, operators.toArray(ReversibleOperator[]::new));
+    }
+
+    private static boolean isSolvable(
+        final long target,
+        final long[] operands,
+        final int last,
+        final ReversibleOperator[] operators
+    ) {
+        if (last == 0) {
+            return target == operands[0];
+        }
+
+        for (final var operator : operators) {
+            final var rest = operator.undo(target, operands[last]);
+            if (rest != ReversibleOperator.NONE && isSolvable(rest, operands, last - 1, operators)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package day07;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decides whether an equation is solvable by trying operator combinations
+ * left to right, one at a time, with nothing but a stack of longs.
+ * <p>
+ * The search is a depth-first walk over the choice of operator before each
+ * operand. The stack holds the running value after each operand and the
+ * next operator to try there, so memory is linear in the number of operands
+ * however many combinations there are. It stops at the first combination
+ * that reaches the test value. Every operator here keeps or grows its left
+ * operand when the right one is positive, so a running value past the test
+ * value, or one that overflows a long, is never extended further.
+ */
+final class ForwardSolver {
+    private static final int CANCEL_CHECK_MASK = 1023;
+
+    private ForwardSolver() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if an operand isn't positive, since
+     * the pruning relies on no operator shrinking the running value
+     */
+    static boolean isSolvable(
+        final long testValue,
+        final long[] operands,
+        final List<? extends ReversibleOperator> operators
+    ) {
+        requirePositive(operands);
+        if (operands.length == 0) {
+            return testValue == 0;
+        }
+
+        return search(testValue, operands, 1, operands[0], operators.toArray(ReversibleOperator[]::new), null);
+    }
+
+    static void requirePositive(final long[] operands) {
+        for (final var operand : operands) {
+            if (operand <= 0) {
+                throw new IllegalArgumentException("Operands must be positive: " + operand);
+            }
+        }
+    }
+
+    /**
+     * Searches the combinations of the operators before operands
+     * {@code from} onwards, given that the ones before have come to
+     * {@code start}. Gives up, returning false, soon after
+     * {@code cancelled} is set, if there is one.
+     */
+    static boolean search(
+        final long testValue,
+        final long[] operands,
+        final int from,
+        final long start,
+        final ReversibleOperator[] candidates,
+        final AtomicBoolean cancelled
+    ) {
+        if (from == operands.length) {
+            return start == testValue;
+        }
+
+        // values[i] is the running value after operand i, and next[i] the
+        // next operator to try before it
+        final var values = new long[operands.length];
+        final var next = new int[operands.length];
+        values[from - 1] = start;
+        var depth = from;
+        var steps = 0;
+        while (depth >= from) {
+            if (cancelled != null && (++steps & CANCEL_CHECK_MASK) == 0 && cancelled.get()) {
+                return false;
+            }
+            if (next[depth] == candidates.length) {
+                next[depth--] = 0;
+                continue;
+            }
+
+            final var value = candidates[next[depth]++].tryApply(values[depth - 1], operands[depth]);
+            if (value == ReversibleOperator.NONE || value > testValue) {
+                continue;
+            }
+            if (depth == operands.length - 1) {
+                if (value == testValue) {
+                    return true;
+                }
+                continue;
+            }
+            values[depth++] = value;
+        }
+
+        return false;
+    }
+}
@@ -1,12 +1,14 @@
 package day07;
 
+import common.ByteCursor;
 import day07.Main.Node.Operation;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 public class Main {
@@ -17,22 +19,91 @@ public class Main {
 
     record Equation(
         long testValue,
-        List<Integer> numbers
+        long[] operands
     ) {
     }
 
     sealed interface Node {
         long evaluate();
 
+        /**
+         * Like {@link #evaluate()}, but throws instead of wrapping around.
+         *
+         * @throws ArithmeticException if any step overflows a long
+         */
+        long evaluateExact();
+
         record Number(long value) implements Node {
             @Override
             public long evaluate() {
                 return value;
             }
+
+            @Override
+            public long evaluateExact() {
+                return value;
+            }
         }
 
-        enum Operator {
-            ADD, MUL, CONCAT
+        enum Operator implements ReversibleOperator {
+            ADD {
+                @Override
+                public long apply(final long left, final long right) {
+                    return left + right;
+                }
+
+                @Override
+                public long tryApply(final long left, final long right) {
+                    return left > Long.MAX_VALUE - right ? NONE : left + right;
+                }
+
+                @Override
+                public long undo(final long result, final long right) {
+                    return result >= right ? result - right : NONE;
+                }
+            },
+            MUL {
+                @Override
+                public long apply(final long left, final long right) {
+                    return left * right;
+                }
+
+                @Override
+                public long tryApply(final long left, final long right) {
+                    return Math.multiplyHigh(left, right) != 0 || left * right < 0 ? NONE : left * right;
+                }
+
+                @Override
+                public long undo(final long result, final long right) {
+                    return result % right == 0 ? result / right : NONE;
+                }
+            },
+            CONCAT {
+                @Override
+                public long apply(final long left, final long right) {
+                    return concat(left, right);
+                }
+
+                @Override
+                public long tryApply(final long left, final long right) {
+                    final var digits = digitCount(right);
+                    if (digits == POWERS_OF_TEN.length) {
+                        return left == 0 ? right : NONE;
+                    }
+                    final var shift = POWERS_OF_TEN[digits];
+                    return left > (Long.MAX_VALUE - right) / shift ? NONE : left * shift + right;
+                }
+
+                @Override
+                public long undo(final long result, final long right) {
+                    final var digits = digitCount(right);
+                    if (digits == POWERS_OF_TEN.length) {
+                        return result == right ? 0 : NONE;
+                    }
+                    final var shift = POWERS_OF_TEN[digits];
+                    return result >= right && (result - right) % shift == 0 ? (result - right) / shift : NONE;
+                }
+            }
         }
 
         record Operation(
@@ -42,44 +113,120 @@ public class Main {
         ) implements Node {
             @Override
             public long evaluate() {
-                return switch (operator) {
-                    case ADD -> switch (right) {
-                        case Number number -> left + number.value;
-                        case Operation operation -> new Operation(
-                            left + operation.left,
-                            operation.operator,
-                            operation.right
-                        )
-                            .evaluate();
-                    };
-                    case MUL -> switch (right) {
-                        case Number number -> left * number.value;
-                        case Operation operation -> new Operation(
-                            left * operation.left,
-                            operation.operator,
-                            operation.right
-                        )
-                            .evaluate();
-                    };
-                    case CONCAT -> switch (right) {
-                        case Number number -> concatAsStrings(left, number.value);
-                        case Operation operation -> new Operation(
-                            concatAsStrings(left, operation.left),
-                            operation.operator,
-                            operation.right
-                        )
-                            .evaluate();
-                    };
+                return switch (right) {
+                    case Number number -> operator.apply(left, number.value);
+                    case Operation operation -> new Operation(
+                        operator.apply(left, operation.left),
+                        operation.operator,
+                        operation.right
+                    )
+                        .evaluate();
+                };
+            }
+
+            @Override
+            public long evaluateExact() {
+                return switch (right) {
+                    case Number number -> operator.applyExact(left, number.value);
+                    case Operation operation -> new Operation(
+                        operator.applyExact(left, operation.left),
+                        operation.operator,
+                        operation.right
+                    )
+                        .evaluateExact();
                 };
             }
         }
     }
 
+    static final List<Node.Operator> PART1_OPERATORS = List.of(Node.Operator.ADD, Node.Operator.MUL);
+    static final List<Node.Operator> PART2_OPERATORS = List.of(Node.Operator.values());
+
+    /**
+     * How an equation is checked: {@code TREE} evaluates every operator
+     * combination built by {@link #get}, and {@code TREE_EXACT} does the same
+     * but skips combinations that overflow rather than letting them wrap
+     * around into a false match. {@code BACKWARD} works back from the test
+     * value with {@link BackwardSolver}, and {@code FORWARD} tries
+     * combinations one at a time with {@link ForwardSolver}.
+     * {@code PARALLEL} runs the forward search across cores with
+     * {@link ParallelSolver}, splitting long equations as well.
+     */
+    enum Engine {
+        TREE, TREE_EXACT, BACKWARD, FORWARD, PARALLEL
+    }
+
+    static final int SPLIT_DEPTH = 4;
+
     static long part1() throws Exception {
-        return parseInput(Path.of("./src/day07/input.txt"))
+        return part1(parseInput(Path.of("./src/day07/input.txt")));
+    }
+
+    static long part1(final List<Equation> equations, final Engine engine) {
+        return switch (engine) {
+            case TREE -> part1(equations);
+            case TREE_EXACT -> sumExact(equations, false);
+            case BACKWARD -> sumSolvable(equations, PART1_OPERATORS, BackwardSolver::isSolvable);
+            case FORWARD -> sumSolvable(equations, PART1_OPERATORS, ForwardSolver::isSolvable);
+            case PARALLEL -> ParallelSolver.sumSolvable(equations, PART1_OPERATORS, SPLIT_DEPTH);
+        };
+    }
+
+    static long part2(final List<Equation> equations, final Engine engine) {
+        return switch (engine) {
+            case TREE -> part2(equations);
+            case TREE_EXACT -> sumExact(equations, true);
+            case BACKWARD -> sumSolvable(equations, PART2_OPERATORS, BackwardSolver::isSolvable);
+            case FORWARD -> sumSolvable(equations, PART2_OPERATORS, ForwardSolver::isSolvable);
+            case PARALLEL -> ParallelSolver.sumSolvable(equations, PART2_OPERATORS, SPLIT_DEPTH);
+        };
+    }
+
+    static long sumExact(final List<Equation> equations, final boolean withConcatenation) {
+        return equations
+            .stream()
+            .filter(equation ->
+                get(equation.operands, withConcatenation)
+                    .stream()
+                    .anyMatch(node -> evaluatesTo(node, equation.testValue))
+            )
+            .mapToLong(Equation::testValue)
+            .sum();
+    }
+
+    /**
+     * Whether {@code node} is exactly {@code value}. A node that overflows
+     * can't be, as {@code value} fits in a long.
+     */
+    static boolean evaluatesTo(final Node node, final long value) {
+        try {
+            return node.evaluateExact() == value;
+        } catch (final ArithmeticException e) {
+            return false;
+        }
+    }
+
+    interface Solver {
+        boolean isSolvable(long testValue, long[] operands, List<? extends ReversibleOperator> operators);
+    }
+
+    static long sumSolvable(
+        final List<Equation> equations,
+        final List<? extends ReversibleOperator> operators,
+        final Solver solver
+    ) {
+        return equations
+            .stream()
+            .filter(equation -> solver.isSolvable(equation.testValue, equation.operands(), operators))
+            .mapToLong(Equation::testValue)
+            .sum();
+    }
+
+    static long part1(final List<Equation> equations) {
+        return equations
             .stream()
             .filter(equation ->
-                get(equation.numbers, false)
+                get(equation.operands, false)
                     .stream()
                     .map(Node::evaluate)
                     .anyMatch(l -> equation.testValue == l)
@@ -89,10 +236,14 @@ public class Main {
     }
 
     static long part2() throws Exception {
-        return parseInput(Path.of("./src/day07/input.txt"))
+        return part2(parseInput(Path.of("./src/day07/input.txt")));
+    }
+
+    static long part2(final List<Equation> equations) {
+        return equations
             .stream()
             .filter(equation ->
-                get(equation.numbers, true)
+                get(equation.operands, true)
                     .stream()
                     .map(Node::evaluate)
                     .anyMatch(l -> equation.testValue == l)
@@ -101,22 +252,30 @@ public class Main {
             .sum();
     }
 
-    static List<Node> get(final List<Integer> numbers, final boolean withConcatenation) {
-        return switch (numbers.size()) {
+    static List<Node> get(final long[] operands, final boolean withConcatenation) {
+        return get(operands, 0, withConcatenation);
+    }
+
+    /**
+     * Every operator combination over {@code operands} from index
+     * {@code from} on.
+     */
+    private static List<Node> get(final long[] operands, final int from, final boolean withConcatenation) {
+        return switch (operands.length - from) {
             case 0 -> List.of(new Node.Number(0L));
-            case 1 -> List.of(new Node.Number(numbers.getFirst().longValue()));
-            default -> get(numbers.subList(1, numbers.size()), withConcatenation)
+            case 1 -> List.of(new Node.Number(operands[from]));
+            default -> get(operands, from + 1, withConcatenation)
                 .stream()
                 .flatMap(node ->
                     Stream.concat(
                         Stream.<Node>of(
                             new Operation(
-                                numbers.getFirst(),
+                                operands[from],
                                 Node.Operator.ADD,
                                 node
                             ),
                             new Operation(
-                                numbers.getFirst(),
+                                operands[from],
                                 Node.Operator.MUL,
                                 node
                             )
@@ -124,7 +283,7 @@ public class Main {
                         withConcatenation
                             ? Stream.of(
                                 new Operation(
-                                    numbers.getFirst(),
+                                    operands[from],
                                     Node.Operator.CONCAT,
                                     node
                                 )
@@ -136,6 +295,36 @@ public class Main {
         };
     }
 
+    // 10^0 to 10^18, every power of ten that fits in a long
+    static final long[] POWERS_OF_TEN = LongStream.iterate(1, power -> power * 10)
+        .limit(19)
+        .toArray();
+
+    /**
+     * The number of decimal digits of a non-negative {@code value}, where
+     * zero has one.
+     */
+    static int digitCount(final long value) {
+        // 1233 / 4096 is just over log10(2), so this is the digit count or one less
+        final var estimate = (Long.SIZE - Long.numberOfLeadingZeros(value)) * 1233 >>> 12;
+        return value >= POWERS_OF_TEN[estimate] ? estimate + 1 : Math.max(1, estimate);
+    }
+
+    /**
+     * The digits of {@code right} appended to those of {@code left}, both
+     * non-negative, wrapping around like {@code *} and {@code +} if the
+     * result doesn't fit.
+     */
+    static long concat(final long left, final long right) {
+        final var digits = digitCount(right);
+        if (digits == POWERS_OF_TEN.length) {
+            // 10^19 doesn't fit, but wrapping multiplication by 10 and 10^18 agrees with it
+            return left * 10 * POWERS_OF_TEN[digits - 1] + right;
+        }
+
+        return left * POWERS_OF_TEN[digits] + right;
+    }
+
     static long concatAsStrings(final long... longs) {
         return Long.parseLong(
             Arrays.stream(longs)
@@ -145,15 +334,21 @@ public class Main {
     }
 
     static List<Equation> parseInput(final Path input) throws Exception {
-        return Files.readAllLines(input)
-            .stream()
-            .map(line -> {
-                final var parts = line.split(": ");
-                return new Equation(
-                    Long.parseLong(parts[0]),
-                    Stream.of(parts[1].split("\\s")).map(Integer::parseInt).toList()
-                );
-            })
-            .toList();
+        final var cursor = ByteCursor.map(input);
+        final var equations = new ArrayList<Equation>();
+        var operands = new long[16];
+        while (cursor.hasNextNumber()) {
+            final var testValue = cursor.nextLong();
+            var size = 0;
+            while (cursor.hasNextNumberOnLine()) {
+                if (size == operands.length) {
+                    operands = Arrays.copyOf(operands, size * 2);
+                }
+                operands[size++] = cursor.nextInt();
+            }
+            equations.add(new Equation(testValue, Arrays.copyOf(operands, size)));
+        }
+
+        return equations;
     }
 }
@@ -0,0 +1,118 @@
+package day07;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs {@link ForwardSolver} over equations in parallel, and splits long
+ * equations across workers too.
+ * <p>
+ * Equations are spread over the common fork-join pool. An equation with
+ * more than {@code splitDepth} operators is split on its first
+ * {@code splitDepth} operator choices: each choice that survives pruning
+ * becomes a subtask searching the rest. Work-stealing then evens out the
+ * skew between short and long equations. The subtasks of an equation share a
+ * flag, set by the first one to reach the test value, which makes the others
+ * give up.
+ */
+final class ParallelSolver {
+    private ParallelSolver() {
+    }
+
+    static long sumSolvable(
+        final List<Main.Equation> equations,
+        final List<? extends ReversibleOperator> operators,
+        final int splitDepth
+    ) {
+        final var candidates = operators.toArray(ReversibleOperator[]::new);
+        return equations
+            .parallelStream()
+            .filter(equation -> new EquationTask(equation.testValue(), equation.operands(), candidates, splitDepth).invoke())
+            .mapToLong(Main.Equation::testValue)
+            .sum();
+    }
+
+    @SuppressWarnings("serial")
+    private static final class EquationTask extends RecursiveTask<Boolean> {
+        private final long testValue;
+        private final long[] operands;
+        private final ReversibleOperator[] candidates;
+        private final int splitDepth;
+
+        EquationTask(
+            final long testValue,
+            final long[] operands,
+            final ReversibleOperator[] candidates,
+            final int splitDepth
+        ) {
+            this.testValue = testValue;
+            this.operands = operands;
+            this.candidates = candidates;
+            this.splitDepth = splitDepth;
+        }
+
+        @Override
+        protected Boolean compute() {
+            ForwardSolver.requirePositive(operands);
+            if (operands.length == 0) {
+                return testValue == 0;
+            }
+            if (operands.length - 1 <= splitDepth) {
+                return ForwardSolver.search(testValue, operands, 1, operands[0], candidates, null);
+            }
+
+            final var found = new AtomicBoolean();
+            final var branches = new ArrayList<BranchTask>();
+            var prefixes = 1;
+            for (int i = 0; i < splitDepth; i++) {
+                prefixes *= candidates.length;
+            }
+            // each prefix picks the first splitDepth operators, one base-n digit each
+            for (int prefix = 0; prefix < prefixes; prefix++) {
+                var value = operands[0];
+                var choices = prefix;
+                for (int i = 1; i <= splitDepth && value != ReversibleOperator.NONE; i++) {
+                    value = candidates[choices % candidates.length].tryApply(value, operands[i]);
+                    choices /= candidates.length;
+                    if (value > testValue) {
+                        value = ReversibleOperator.NONE;
+                    }
+                }
+                if (value != ReversibleOperator.NONE) {
+                    branches.add(new BranchTask(this, splitDepth + 1, value, found));
+                }
+            }
+            invokeAll(branches);
+
+            return found.get();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class BranchTask extends RecursiveAction {
+        private final EquationTask equation;
+        private final int from;
+        private final long start;
+        private final AtomicBoolean found;
+
+        BranchTask(final EquationTask equation, final int from, final long start, final AtomicBoolean found) {
+            this.equation = equation;
+            this.from = from;
+            this.start = start;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            if (found.get()) {
+                return;
+            }
+            if (ForwardSolver.search(equation.testValue, equation.operands, from, start, equation.candidates, found)) {
+                found.set(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package day07;
+
+/**
+ * An operator on non-negative longs that can be run backwards: given a result
+ * and the right operand, it recovers the left operand, or reports that there
+ * is none.
+ * <p>
+ * {@link BackwardSolver} only needs this to try an operator, so adding one is
+ * just another implementation.
+ */
+interface ReversibleOperator {
+    /**
+     * Returned by {@link #undo} when no left operand gives the result, and by
+     * {@link #tryApply} when the result doesn't fit in a long.
+     */
+    long NONE = -1;
+
+    long apply(long left, long right);
+
+    /**
+     * Like {@link #apply}, but {@link #NONE} instead of a result that
+     * overflows.
+     */
+    long tryApply(long left, long right);
+
+    /**
+     * @throws ArithmeticException if the result overflows
+     */
+    default long applyExact(final long left, final long right) {
+        final var result = tryApply(left, right);
+        if (result == NONE) {
+            throw new ArithmeticException(this + " of " + left + " and " + right + " overflows a long");
+        }
+
+        return result;
+    }
+
+    /**
+     * The left operand {@code l} with {@code apply(l, right) == result}, or
+     * {@link #NONE}. {@code right} is positive.
+     */
+    long undo(long result, long right);
+}
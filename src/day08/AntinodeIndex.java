@@ -0,0 +1,117 @@
+package day08;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps both day08 answers current while antennas are added and removed.
+ * <p>
+ * Every cell holds, for each part, the number of same-frequency antenna
+ * pairs with an antinode there, and each part keeps the number of cells
+ * whose count is above zero. An antenna only forms pairs with the others of
+ * its frequency, so adding or removing it touches those k pairs alone. A
+ * count crossing zero moves the distinct total by one, so reading either
+ * answer is O(1).
+ */
+final class AntinodeIndex {
+    private final Antinodes antinodes;
+    private final Map<Character, List<Main.Point>> antennas = new HashMap<>();
+    private final int[] pairs;
+    private final int[] harmonicPairs;
+    private final int[] buffer;
+    private long distinct;
+    private long harmonicDistinct;
+
+    AntinodeIndex(final Antinodes antinodes) {
+        this.antinodes = antinodes;
+        this.pairs = new int[antinodes.cells()];
+        this.harmonicPairs = new int[antinodes.cells()];
+        this.buffer = antinodes.newBuffer();
+    }
+
+    static AntinodeIndex of(final Main.Input input) {
+        final var index = new AntinodeIndex(Antinodes.of(input));
+        input.antennas().forEach((frequency, points) ->
+            points.forEach(point -> index.add(frequency, point))
+        );
+
+        return index;
+    }
+
+    /**
+     * The number of distinct antinodes, as in part 1.
+     */
+    long part1() {
+        return distinct;
+    }
+
+    /**
+     * The number of distinct antinodes with resonant harmonics, as in part 2.
+     */
+    long part2() {
+        return harmonicDistinct;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code point} is off the map, or
+     * there is already an antenna of this frequency at it
+     */
+    void add(final char frequency, final Main.Point point) {
+        if (!antinodes.contains(point)) {
+            throw new IllegalArgumentException("Antenna " + frequency + " at " + point + " is off the map");
+        }
+
+        final var points = antennas.computeIfAbsent(frequency, _ -> new ArrayList<>());
+        if (points.contains(point)) {
+            throw new IllegalArgumentException("Antenna " + frequency + " is already at " + point);
+        }
+
+        for (final var other : points) {
+            update(point, other, 1);
+        }
+        points.add(point);
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no antenna of this
+     * frequency at {@code point}
+     */
+    void remove(final char frequency, final Main.Point point) {
+        final var points = antennas.get(frequency);
+        if (points == null || !points.remove(point)) {
+            throw new IllegalArgumentException("No antenna " + frequency + " at " + point);
+        }
+
+        for (final var other : points) {
+            update(point, other, -1);
+        }
+    }
+
+    private void update(final Main.Point point, final Main.Point other, final int delta) {
+        var size = antinodes.antinodes(point, other, false, buffer);
+        for (int i = 0; i < size; i++) {
+            distinct += change(pairs, buffer[i], delta);
+        }
+
+        size = antinodes.antinodes(point, other, true, buffer);
+        for (int i = 0; i < size; i++) {
+            harmonicDistinct += change(harmonicPairs, buffer[i], delta);
+        }
+    }
+
+    /**
+     * Moves a cell's pair count by {@code delta}, returning how the number
+     * of cells with pairs changes.
+     */
+    private static int change(final int[] counts, final int cell, final int delta) {
+        final var before = counts[cell];
+        counts[cell] += delta;
+        if (before == 0) {
+            return 1;
+        }
+
+        return counts[cell] == 0 ? -1 : 0;
+    }
+}
@@ -0,0 +1,113 @@
+package day08;
+
+import java.util.Arrays;
+
+/**
+ * Antinode arithmetic on packed {@code row * columns + col} cells.
+ * <p>
+ * An antenna pair's antinodes come straight from the difference of the two
+ * positions: one step past each antenna for part 1, and for part 2 every
+ * step along the line through both, with the step reduced by the gcd of its
+ * components so that no grid point on the line is skipped. Cells are
+ * written to a caller's buffer rather than collected, and {@link #count}
+ * marks them in one bitset the size of the map, so the answer is a
+ * popcount.
+ */
+final class Antinodes {
+    private final int rows;
+    private final int columns;
+
+    Antinodes(final int rows, final int columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    static Antinodes of(final Main.Input input) {
+        return new Antinodes(input.mapHeight(), input.mapWidth());
+    }
+
+    int cells() {
+        return rows * columns;
+    }
+
+    /**
+     * Room for the antinodes of any one pair.
+     */
+    int[] newBuffer() {
+        return new int[Math.max(2, Math.max(rows, columns))];
+    }
+
+    /**
+     * Writes the antinodes of the antennas at {@code a} and {@code b} that
+     * lie on the map into {@code buffer}, returning how many there are.
+     */
+    int antinodes(final Main.Point a, final Main.Point b, final boolean harmonics, final int[] buffer) {
+        var rowStep = b.row() - a.row();
+        var colStep = b.col() - a.col();
+        if (!harmonics) {
+            var size = 0;
+            if (isOnMap(b.row() + rowStep, b.col() + colStep)) {
+                buffer[size++] = cell(b.row() + rowStep, b.col() + colStep);
+            }
+            if (isOnMap(a.row() - rowStep, a.col() - colStep)) {
+                buffer[size++] = cell(a.row() - rowStep, a.col() - colStep);
+            }
+            return size;
+        }
+
+        final var divisor = gcd(Math.abs(rowStep), Math.abs(colStep));
+        rowStep /= divisor;
+        colStep /= divisor;
+
+        // back up to the first point of the line on the map, then walk it
+        var row = a.row();
+        var col = a.col();
+        while (isOnMap(row - rowStep, col - colStep)) {
+            row -= rowStep;
+            col -= colStep;
+        }
+        var size = 0;
+        while (isOnMap(row, col)) {
+            buffer[size++] = cell(row, col);
+            row += rowStep;
+            col += colStep;
+        }
+
+        return size;
+    }
+
+    long count(final Main.Input input, final boolean harmonics) {
+        final var marked = new long[(cells() + Long.SIZE - 1) / Long.SIZE];
+        final var buffer = newBuffer();
+        for (final var points : input.antennas().values()) {
+            for (int i = 0; i < points.size(); i++) {
+                for (int j = i + 1; j < points.size(); j++) {
+                    final var size = antinodes(points.get(i), points.get(j), harmonics, buffer);
+                    for (int k = 0; k < size; k++) {
+                        marked[buffer[k] >>> 6] |= 1L << buffer[k];
+                    }
+                }
+            }
+        }
+
+        return Arrays.stream(marked)
+            .map(Long::bitCount)
+            .sum();
+    }
+
+    boolean contains(final Main.Point point) {
+        return isOnMap(point.row(), point.col());
+    }
+
+    private boolean isOnMap(final int row, final int col) {
+        return row >= 0 && row < rows && col >= 0 && col < columns;
+    }
+
+    private int cell(final int row, final int col) {
+        return row * columns + col;
+    }
+
+    private static int gcd(final int a, final int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
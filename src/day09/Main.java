@@ -18,7 +18,10 @@ public class Main {
     }
 
     static long part1() throws Exception {
-        final var diskMap = parseInput(Path.of("./src/day09/input.txt"));
+        return part1(parseInput(Path.of("./src/day09/input.txt")));
+    }
+
+    static long part1(final DiskMap diskMap) {
         var disk = Disk.from(diskMap);
 
         while (!isCompacted(disk)) {
@@ -1,6 +1,7 @@
 package day10;
 
-import java.nio.file.Files;
+import common.ByteCursor;
+
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
@@ -17,8 +18,10 @@ public class Main {
     }
 
     static long part1() throws Exception {
-        final var topographicMap = parseInput(Path.of("./src/day10/input.txt"));
+        return part1(parseInput(Path.of("./src/day10/input.txt")));
+    }
 
+    static long part1(final TopographicMap topographicMap) {
         return allPoints(topographicMap)
             .filter(topographicMap::isTrailhead)
             .mapToInt(trailhead -> countSummits(topographicMap, trailhead))
@@ -26,8 +29,10 @@ public class Main {
     }
 
     static long part2() throws Exception {
-        final var topographicMap = parseInput(Path.of("./src/day10/input.txt"));
+        return part2(parseInput(Path.of("./src/day10/input.txt")));
+    }
 
+    static long part2(final TopographicMap topographicMap) {
         return allPoints(topographicMap)
             .filter(topographicMap::isTrailhead)
             .mapToInt(trailhead -> scoreTrailhead(topographicMap, trailhead))
@@ -63,21 +68,24 @@ public class Main {
         }
     }
 
-    record TopographicMap(List<List<Integer>> value, int width, int height) {
+    /**
+     * The heights row by row, {@code width} to a row.
+     */
+    record TopographicMap(byte[] heights, int width, int height) {
         int at(final Point point) {
-            return value.get(point.row).get(point.col);
+            return heights[point.row * width + point.col];
         }
 
         boolean isTrailhead(final Point point) {
-            return value.get(point.row).get(point.col) == 0;
+            return at(point) == 0;
         }
 
         @Override
         public String toString() {
-            return value.stream()
-                .map(row ->
-                    row.stream()
-                        .map(String::valueOf)
+            return IntStream.range(0, height)
+                .mapToObj(row ->
+                    IntStream.range(row * width, (row + 1) * width)
+                        .mapToObj(i -> String.valueOf((char) ('0' + heights[i])))
                         .collect(Collectors.joining())
                 )
                 .collect(Collectors.joining("\n"));
@@ -107,17 +115,27 @@ public class Main {
     }
 
     static TopographicMap parseInput(final Path input) throws Exception {
-        final var lines = Files.readAllLines(input);
+        final var cursor = ByteCursor.map(input);
+
+        final var width = cursor.lineEnd() - cursor.position();
+        var heights = new byte[width * width];
+        var height = 0;
+        while (cursor.hasRemaining()) {
+            if ((height + 1) * width > heights.length) {
+                heights = Arrays.copyOf(heights, heights.length * 2);
+            }
+            final var lineStart = cursor.position();
+            for (int col = 0; col < width; col++) {
+                heights[height * width + col] = (byte) (cursor.get(lineStart + col) - '0');
+            }
+            height++;
+            cursor.nextLine();
+        }
 
-        final var map = lines.stream()
-            .map(line ->
-                Arrays.stream(line.split("")).map(Integer::parseInt).toList()
-            )
-            .toList();
         return new TopographicMap(
-            map,
-            map.getFirst().size(),
-            map.size()
+            Arrays.copyOf(heights, height * width),
+            width,
+            height
         );
     }
 }